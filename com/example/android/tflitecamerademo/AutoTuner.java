@@ -0,0 +1,206 @@
+package com.example.android.tflitecamerademo;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Build.VERSION;
+import android.support.v4.util.AtomicFile;
+import android.util.Log;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.InterpreterBenchmark;
+
+class AutoTuner {
+    private static final String FILE_NAME = "tflite_tuning.properties";
+    static final String INPUT_BITMAP = "bitmap";
+    private static final String INPUT_KEY_SUFFIX = "|input";
+    private static final int INPUT_TRIAL_FRAMES = 30;
+    static final String INPUT_YUV = "yuv";
+    private static final String NOT_TUNABLE = "default";
+    private static final String TAG = "TfLiteCameraDemo";
+    private static final int TIMED_RUNS = 10;
+    private static final int WARMUP_RUNS = 3;
+    private final AtomicFile file;
+
+    static final class InputPathTrial {
+        private long bitmapNanos;
+        private int bitmapSamples;
+        private long yuvNanos;
+        private int yuvSamples;
+
+        /* access modifiers changed from: 0000 */
+        public synchronized void addBitmap(long nanos) {
+            if (this.bitmapSamples >= AutoTuner.WARMUP_RUNS) {
+                this.bitmapNanos += nanos;
+            }
+            this.bitmapSamples++;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized void addYuv(long nanos) {
+            if (this.yuvSamples >= AutoTuner.WARMUP_RUNS) {
+                this.yuvNanos += nanos;
+            }
+            this.yuvSamples++;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized boolean needsBitmap() {
+            return this.bitmapSamples < AutoTuner.WARMUP_RUNS + AutoTuner.INPUT_TRIAL_FRAMES;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized boolean isComplete() {
+            return !needsBitmap() && this.yuvSamples >= AutoTuner.WARMUP_RUNS + AutoTuner.INPUT_TRIAL_FRAMES;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized long meanBitmapNanos() {
+            return this.bitmapNanos / ((long) Math.max(1, this.bitmapSamples - AutoTuner.WARMUP_RUNS));
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized long meanYuvNanos() {
+            return this.yuvNanos / ((long) Math.max(1, this.yuvSamples - AutoTuner.WARMUP_RUNS));
+        }
+    }
+
+    AutoTuner(Context context) {
+        this.file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Interpreter.Options load(String key) {
+        String value = readAll().getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        if (NOT_TUNABLE.equals(value)) {
+            return new Interpreter.Options();
+        }
+        String[] parts = value.split(",");
+        try {
+            if (parts.length == 2) {
+                Long.parseLong(parts[1]);
+                return new Interpreter.Options().setUseNNAPI(Boolean.parseBoolean(parts[0]));
+            }
+            Log.w(TAG, "Ignoring tuning entry in an old format " + key + "=" + value);
+            return null;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Ignoring malformed tuning entry " + key + "=" + value);
+            return null;
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Interpreter.Options tune(String key, MappedByteBuffer model, Object input, Object output) {
+        Interpreter.Options best = null;
+        long bestNanos = Long.MAX_VALUE;
+        boolean[] nnapiChoices = VERSION.SDK_INT >= 27 ? new boolean[]{false, true} : new boolean[]{false};
+        for (boolean useNNAPI : nnapiChoices) {
+            try {
+                InterpreterBenchmark.Result result = InterpreterBenchmark.compare(model, new Interpreter.Options[]{new Interpreter.Options().setUseNNAPI(useNNAPI)}, input, output, WARMUP_RUNS, TIMED_RUNS);
+                Log.d(TAG, "Auto-tune: " + result);
+                if (result.getBestMeanNanos() < bestNanos) {
+                    bestNanos = result.getBestMeanNanos();
+                    best = result.getBestOptions();
+                }
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Auto-tune candidate failed (nnapi=" + useNNAPI + ")", e);
+            }
+        }
+        if (best == null) {
+            Log.w(TAG, "Auto-tune failed for every candidate; keeping the default configuration for this model.");
+            store(key, NOT_TUNABLE);
+            return null;
+        }
+        store(key, best.getUseNNAPI() + "," + bestNanos);
+        return best;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String loadInputPath() {
+        String key = inputPathKey();
+        String value = readAll().getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        try {
+            if (parts.length == 3 && (INPUT_YUV.equals(parts[0]) || INPUT_BITMAP.equals(parts[0]))) {
+                Long.parseLong(parts[1]);
+                Long.parseLong(parts[2]);
+                return parts[0];
+            }
+        } catch (NumberFormatException e) {
+        }
+        Log.w(TAG, "Ignoring malformed tuning entry " + key + "=" + value);
+        return null;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String tuneInputPath(InputPathTrial trial) {
+        long yuvNanos = trial.meanYuvNanos();
+        long bitmapNanos = trial.meanBitmapNanos();
+        String path = yuvNanos <= bitmapNanos ? INPUT_YUV : INPUT_BITMAP;
+        Log.d(TAG, "Input path trial: yuv " + (yuvNanos / 1000) + "us, bitmap " + (bitmapNanos / 1000) + "us per frame; using " + path);
+        store(inputPathKey(), path + "," + yuvNanos + "," + bitmapNanos);
+        return path;
+    }
+
+    private void store(String key, String value) {
+        Properties props = readAll();
+        props.setProperty(key, value);
+        FileOutputStream out = null;
+        try {
+            out = this.file.startWrite();
+            props.store(out, null);
+            this.file.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to persist tuning result", e);
+            this.file.failWrite(out);
+        }
+    }
+
+    private Properties readAll() {
+        Properties props = new Properties();
+        try {
+            props.load(new ByteArrayInputStream(this.file.readFully()));
+        } catch (FileNotFoundException e) {
+        } catch (IOException e2) {
+            Log.w(TAG, "Failed to read tuning results", e2);
+        }
+        return props;
+    }
+
+    static String keyFor(ByteBuffer model) {
+        return Build.FINGERPRINT + "|" + hashOf(model);
+    }
+
+    static String inputPathKey() {
+        return Build.FINGERPRINT + INPUT_KEY_SUFFIX;
+    }
+
+    static String hashOf(ByteBuffer model) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(model.duplicate());
+            byte[] hash = digest.digest();
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 15, 16)).append(Character.forDigit(b & 15, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.android.tflitecamerademo;
+
+import android.support.v4.util.ConcurrentLruCache;
+import android.support.v4.util.LruCache;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+final class CacheContentionBenchmark {
+    private static final long SEED = 42;
+
+    interface Target {
+        Integer get(Integer num);
+
+        int maxSize();
+
+        Integer put(Integer num, Integer num2);
+
+        int size();
+    }
+
+    static final class Result {
+        final long elapsedNanos;
+        final int hits;
+        final String name;
+        final long operations;
+        final int threads;
+
+        Result(String name2, int threads2, long operations2, int hits2, long elapsedNanos2) {
+            this.name = name2;
+            this.threads = threads2;
+            this.operations = operations2;
+            this.hits = hits2;
+            this.elapsedNanos = elapsedNanos2;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public double operationsPerSecond() {
+            if (this.elapsedNanos == 0) {
+                return 0.0d;
+            }
+            return (((double) this.operations) * 1.0E9d) / ((double) this.elapsedNanos);
+        }
+
+        public String toString() {
+            return String.format(Locale.US, "%s x%d: %d ops, %.0f ops/s, %d hits", new Object[]{this.name, Integer.valueOf(this.threads), Long.valueOf(this.operations), Double.valueOf(operationsPerSecond()), Integer.valueOf(this.hits)});
+        }
+    }
+
+    private CacheContentionBenchmark() {
+    }
+
+    static Result[] compare(int threads, int operationsPerThread, int keySpace, int maxSize, int readPercent) throws InterruptedException {
+        final LruCache<Integer, Integer> lru = new LruCache<>(maxSize);
+        final ConcurrentLruCache<Integer, Integer> striped = new ConcurrentLruCache<>(maxSize);
+        return new Result[]{run("LruCache", new Target() {
+            public Integer get(Integer key) {
+                return (Integer) lru.get(key);
+            }
+
+            public Integer put(Integer key, Integer value) {
+                return (Integer) lru.put(key, value);
+            }
+
+            public int size() {
+                return lru.size();
+            }
+
+            public int maxSize() {
+                return lru.maxSize();
+            }
+        }, threads, operationsPerThread, keySpace, readPercent), run("ConcurrentLruCache", new Target() {
+            public Integer get(Integer key) {
+                return (Integer) striped.get(key);
+            }
+
+            public Integer put(Integer key, Integer value) {
+                return (Integer) striped.put(key, value);
+            }
+
+            public int size() {
+                return striped.size();
+            }
+
+            public int maxSize() {
+                return striped.maxSize();
+            }
+        }, threads, operationsPerThread, keySpace, readPercent)};
+    }
+
+    static Result run(String name, final Target target, int threads, final int operationsPerThread, final int keySpace, final int readPercent) throws InterruptedException {
+        if (threads <= 0 || operationsPerThread <= 0 || keySpace <= 0 || readPercent < 0 || readPercent > 100) {
+            throw new IllegalArgumentException(String.format(Locale.US, "Invalid benchmark arguments (threads %d, ops %d, keys %d, reads %d%%)", new Object[]{Integer.valueOf(threads), Integer.valueOf(operationsPerThread), Integer.valueOf(keySpace), Integer.valueOf(readPercent)}));
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final int[] hits = new int[threads];
+        final Throwable[] failure = new Throwable[1];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    Random random = new Random(CacheContentionBenchmark.SEED + ((long) index));
+                    try {
+                        start.await();
+                        for (int i = 0; i < operationsPerThread; i++) {
+                            Integer key = Integer.valueOf(random.nextInt(keySpace));
+                            if (random.nextInt(100) < readPercent) {
+                                Integer value = target.get(key);
+                                if (value != null) {
+                                    if (!value.equals(key)) {
+                                        throw new IllegalStateException("Key " + key + " maps to " + value);
+                                    }
+                                    hits[index]++;
+                                }
+                            } else {
+                                target.put(key, key);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            }, "CacheContentionBenchmark-" + t);
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw new IllegalStateException(name + " failed under contention", failure[0]);
+            }
+        }
+        if (target.size() > target.maxSize()) {
+            throw new IllegalStateException(name + " holds " + target.size() + " entries, over its max of " + target.maxSize());
+        }
+        int totalHits = 0;
+        for (int h : hits) {
+            totalHits += h;
+        }
+        return new Result(name, threads, ((long) threads) * ((long) operationsPerThread), totalHits, elapsed);
+    }
+}
@@ -25,14 +25,19 @@ import android.hardware.camera2.CaptureRequest.Builder;
 import android.hardware.camera2.CaptureResult;
 import android.hardware.camera2.TotalCaptureResult;
 import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
 import android.media.ImageReader;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.HandlerThread;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.v13.app.FragmentCompat;
 import android.support.v13.app.FragmentCompat.OnRequestPermissionsResultCallback;
 import android.support.v4.content.ContextCompat;
+import android.support.v4.os.TraceCompat;
+import android.support.v4.util.AtomicFile;
 import android.util.Log;
 import android.util.Size;
 import android.view.LayoutInflater;
@@ -42,31 +47,50 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import com.google.devtools.build.android.desugar.runtime.ThrowableExtension;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.concurrent.Semaphore;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class Camera2BasicFragment extends Fragment implements OnRequestPermissionsResultCallback {
     static final /* synthetic */ boolean $assertionsDisabled = (!Camera2BasicFragment.class.desiredAssertionStatus());
+    private static final String CAMERA_THREAD_NAME = "CameraControl";
+    private static final String CLASSIFIER_INIT_THREAD_NAME = "ClassifierInit";
     private static final String FRAGMENT_DIALOG = "dialog";
     private static final String HANDLE_THREAD_NAME = "CameraBackground";
+    private static final long FRAME_WAIT_MS = 100;
+    private static final int FRAME_RING_SLOTS = 4;
+    private static final int INFERENCE_MAX_IMAGES = 2;
+    private static final boolean IN_PROCESS_TRACING = true;
     private static final int MAX_PREVIEW_HEIGHT = 1080;
     private static final int MAX_PREVIEW_WIDTH = 1920;
     private static final int PERMISSIONS_REQUEST_CODE = 1;
+    private static final int STATE_CLOSED = 0;
+    private static final int STATE_OPENED = 2;
+    private static final int STATE_OPENING = 1;
     private static final String TAG = "TfLiteCameraDemo";
-    /* access modifiers changed from: private */
-    public Handler backgroundHandler;
-    private HandlerThread backgroundThread;
+    private static final long TELEMETRY_BUCKET_MS = 10000;
+    private static final String TELEMETRY_FILE_NAME = "inference_telemetry.csv";
+    private static final int TELEMETRY_MAX_BUCKETS = 360;
+    private static final long TELEMETRY_SAMPLE_MS = 1000;
+    private static final String TRACE_FILE_NAME = "inference_trace.json";
+    private static final Map<String, CameraCharacteristics> characteristicsCache = new HashMap();
+    private static String[] cameraIdListCache;
     /* access modifiers changed from: private */
     public CameraDevice cameraDevice;
+    /* access modifiers changed from: private */
+    public Handler cameraHandler;
     private String cameraId;
     /* access modifiers changed from: private */
-    public Semaphore cameraOpenCloseLock = new Semaphore(1);
+    public int cameraState = 0;
+    private HandlerThread cameraThread;
     /* access modifiers changed from: private */
     public CaptureCallback captureCallback = new CaptureCallback(this) {
         public void onCaptureProgressed(@NonNull CameraCaptureSession session, @NonNull CaptureRequest request, @NonNull CaptureResult partialResult) {
@@ -78,45 +102,92 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
     /* access modifiers changed from: private */
     public CameraCaptureSession captureSession;
     private boolean checkedPermissions = false;
-    private ImageClassifier classifier;
-    private ImageReader imageReader;
     /* access modifiers changed from: private */
-    public final Object lock = new Object();
+    public volatile ImageClassifier classifier;
     /* access modifiers changed from: private */
-    public Runnable periodicClassify = new Runnable() {
-        public void run() {
-            synchronized (Camera2BasicFragment.this.lock) {
-                if (Camera2BasicFragment.this.runClassifier) {
-                    Camera2BasicFragment.this.classifyFrame();
+    public FrameRing frameRing;
+    /* access modifiers changed from: private */
+    public volatile ImageReader inferenceReader;
+    private volatile InferenceExecutor inferenceExecutor;
+    /* access modifiers changed from: private */
+    public volatile AutoTuner.InputPathTrial inputPathTrial;
+    /* access modifiers changed from: private */
+    public volatile int inferenceRotation;
+    private final ImageReader.OnImageAvailableListener onInferenceImageAvailable = new ImageReader.OnImageAvailableListener() {
+        public void onImageAvailable(ImageReader reader) {
+            Image image = reader.acquireLatestImage();
+            if (image != null) {
+                FrameRing ring = Camera2BasicFragment.this.frameRing;
+                FrameRing.Frame frame = ring.beginWrite();
+                try {
+                    AutoTuner.InputPathTrial trial = Camera2BasicFragment.this.inputPathTrial;
+                    long start = trial != null ? System.nanoTime() : 0;
+                    ImageClassifier.preprocess(image, Camera2BasicFragment.this.inferenceRotation, frame);
+                    if (trial != null) {
+                        trial.addYuv(System.nanoTime() - start);
+                    }
+                    ring.publish(image.getTimestamp());
+                } catch (RuntimeException e) {
+                    ring.abortWrite();
+                    throw e;
+                } finally {
+                    image.close();
                 }
             }
-            Camera2BasicFragment.this.backgroundHandler.post(Camera2BasicFragment.this.periodicClassify);
+        }
+    };
+    private Size inferenceSize;
+    /* access modifiers changed from: private */
+    public boolean destroyed = false;
+    /* access modifiers changed from: private */
+    public final Object lock = new Object();
+    private final Runnable periodicClassify = new Runnable() {
+        public void run() {
+            Camera2BasicFragment.this.classifyFrame();
         }
     };
     /* access modifiers changed from: private */
     public CaptureRequest previewRequest;
+    private final Runnable autoTune = new Runnable() {
+        public void run() {
+            ImageClassifier current = Camera2BasicFragment.this.classifier;
+            if (current != null) {
+                current.autoTune();
+            }
+        }
+    };
     /* access modifiers changed from: private */
     public Builder previewRequestBuilder;
-    private Size previewSize;
-    /* access modifiers changed from: private */
-    public boolean runClassifier = false;
+    private volatile Size previewSize;
+    private int sensorOrientation;
+    private int setUpHeight;
+    private int setUpRotation = -1;
+    private int setUpWidth;
     private final StateCallback stateCallback = new StateCallback() {
         public void onOpened(@NonNull CameraDevice currentCameraDevice) {
-            Camera2BasicFragment.this.cameraOpenCloseLock.release();
+            if (Camera2BasicFragment.this.cameraState != 1) {
+                currentCameraDevice.close();
+                return;
+            }
+            Camera2BasicFragment.this.cameraState = 2;
             Camera2BasicFragment.this.cameraDevice = currentCameraDevice;
             Camera2BasicFragment.this.createCameraPreviewSession();
         }
 
         public void onDisconnected(@NonNull CameraDevice currentCameraDevice) {
-            Camera2BasicFragment.this.cameraOpenCloseLock.release();
             currentCameraDevice.close();
-            Camera2BasicFragment.this.cameraDevice = null;
+            if (Camera2BasicFragment.this.cameraDevice == currentCameraDevice) {
+                Camera2BasicFragment.this.cameraDevice = null;
+                Camera2BasicFragment.this.cameraState = 0;
+            }
         }
 
         public void onError(@NonNull CameraDevice currentCameraDevice, int error) {
-            Camera2BasicFragment.this.cameraOpenCloseLock.release();
             currentCameraDevice.close();
-            Camera2BasicFragment.this.cameraDevice = null;
+            if (Camera2BasicFragment.this.cameraDevice == currentCameraDevice || Camera2BasicFragment.this.cameraState == 1) {
+                Camera2BasicFragment.this.cameraDevice = null;
+                Camera2BasicFragment.this.cameraState = 0;
+            }
             Activity activity = Camera2BasicFragment.this.getActivity();
             if (activity != null) {
                 activity.finish();
@@ -141,17 +212,9 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
     };
     /* access modifiers changed from: private */
     public TextView textView;
+    private InferenceTelemetry telemetry;
     private AutoFitTextureView textureView;
 
-    private static class CompareSizesByArea implements Comparator<Size> {
-        private CompareSizesByArea() {
-        }
-
-        public int compare(Size lhs, Size rhs) {
-            return Long.signum((((long) lhs.getWidth()) * ((long) lhs.getHeight())) - (((long) rhs.getWidth()) * ((long) rhs.getHeight())));
-        }
-    }
-
     public static class ErrorDialog extends DialogFragment {
         private static final String ARG_MESSAGE = "message";
 
@@ -185,30 +248,6 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
         }
     }
 
-    private static Size chooseOptimalSize(Size[] choices, int textureViewWidth, int textureViewHeight, int maxWidth, int maxHeight, Size aspectRatio) {
-        List<Size> bigEnough = new ArrayList<>();
-        List<Size> notBigEnough = new ArrayList<>();
-        int w = aspectRatio.getWidth();
-        int h = aspectRatio.getHeight();
-        for (Size option : choices) {
-            if (option.getWidth() <= maxWidth && option.getHeight() <= maxHeight && option.getHeight() == (option.getWidth() * h) / w) {
-                if (option.getWidth() < textureViewWidth || option.getHeight() < textureViewHeight) {
-                    notBigEnough.add(option);
-                } else {
-                    bigEnough.add(option);
-                }
-            }
-        }
-        if (bigEnough.size() > 0) {
-            return (Size) Collections.min(bigEnough, new CompareSizesByArea());
-        }
-        if (notBigEnough.size() > 0) {
-            return (Size) Collections.max(notBigEnough, new CompareSizesByArea());
-        }
-        Log.e(TAG, "Couldn't find any suitable preview size");
-        return choices[0];
-    }
-
     public static Camera2BasicFragment newInstance() {
         return new Camera2BasicFragment();
     }
@@ -224,17 +263,52 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
 
     public void onActivityCreated(Bundle savedInstanceState) {
         super.onActivityCreated(savedInstanceState);
+        this.cameraThread = new HandlerThread(CAMERA_THREAD_NAME);
+        this.cameraThread.start();
+        this.cameraHandler = new Handler(this.cameraThread.getLooper());
+        final Activity activity = getActivity();
+        if (IN_PROCESS_TRACING && !TraceCompat.isInProcessTracingEnabled()) {
+            TraceCompat.enableInProcessTracing();
+        }
+        this.telemetry = new InferenceTelemetry(new File(activity.getFilesDir(), TELEMETRY_FILE_NAME), new InferenceTelemetry.SysfsSource(), AsyncTask.SERIAL_EXECUTOR, TELEMETRY_BUCKET_MS, TELEMETRY_SAMPLE_MS, TELEMETRY_MAX_BUCKETS);
+        new Thread(new Runnable() {
+            public void run() {
+                Camera2BasicFragment.this.initClassifier(activity);
+            }
+        }, CLASSIFIER_INIT_THREAD_NAME).start();
+        this.frameRing = new FrameRing(FRAME_RING_SLOTS, 50176, 150528, ImageClassifier.BUFFER_POOL);
+        this.inferenceExecutor = new InferenceExecutor(HANDLE_THREAD_NAME, this.periodicClassify);
+    }
+
+    /* access modifiers changed from: private */
+    public void initClassifier(Activity activity) {
+        ImageClassifier newClassifier;
         try {
-            this.classifier = new ImageClassifier(getActivity());
+            newClassifier = new ImageClassifier(activity);
         } catch (IOException e) {
             Log.e(TAG, "Failed to initialize an image classifier.");
+            return;
+        } catch (IllegalStateException e2) {
+            Log.e(TAG, "Failed to initialize an image classifier.", e2);
+            return;
+        }
+        synchronized (this.lock) {
+            if (this.destroyed) {
+                newClassifier.close();
+                return;
+            }
+            newClassifier.setTelemetry(this.telemetry);
+            this.classifier = newClassifier;
+            InferenceExecutor executor = this.inferenceExecutor;
+            if (executor != null && !newClassifier.isTuned()) {
+                executor.post(this.autoTune);
+            }
         }
-        startBackgroundThread();
     }
 
     public void onResume() {
         super.onResume();
-        startBackgroundThread();
+        scheduleAutoTune();
         if (this.textureView.isAvailable()) {
             openCamera(this.textureView.getWidth(), this.textureView.getHeight());
         } else {
@@ -244,29 +318,118 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
 
     public void onPause() {
         closeCamera();
-        stopBackgroundThread();
+        this.inferenceExecutor.pause();
+        if (TraceCompat.isInProcessTracingEnabled()) {
+            final AtomicFile traceFile = new AtomicFile(new File(getActivity().getFilesDir(), TRACE_FILE_NAME));
+            AsyncTask.SERIAL_EXECUTOR.execute(new Runnable() {
+                public void run() {
+                    Camera2BasicFragment.dumpTrace(traceFile);
+                }
+            });
+        }
         super.onPause();
     }
 
+    /* access modifiers changed from: private */
+    public static void dumpTrace(AtomicFile traceFile) {
+        FileOutputStream out = null;
+        try {
+            out = traceFile.startWrite();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+            TraceCompat.dumpChromeTrace(writer);
+            traceFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write the in-process trace", e);
+            traceFile.failWrite(out);
+        }
+    }
+
     public void onDestroy() {
-        this.classifier.close();
+        if (this.inferenceExecutor != null) {
+            final HandlerThread finalCameraThread = this.cameraThread;
+            final FrameRing finalFrameRing = this.frameRing;
+            this.inferenceExecutor.shutdown(new Runnable() {
+                public void run() {
+                    Camera2BasicFragment.this.closeClassifier();
+                    Camera2BasicFragment.closeFrameRing(finalCameraThread, finalFrameRing);
+                }
+            });
+            this.inferenceExecutor = null;
+        }
+        if (this.cameraThread != null) {
+            final InferenceTelemetry finalTelemetry = this.telemetry;
+            this.cameraHandler.post(new Runnable() {
+                public void run() {
+                    finalTelemetry.flush(SystemClock.uptimeMillis());
+                }
+            });
+            this.cameraThread.quitSafely();
+            this.cameraThread = null;
+        }
         super.onDestroy();
     }
 
-    private void setUpCameraOutputs(int width, int height) {
-        String[] cameraIdList;
-        Activity activity = getActivity();
+    /* access modifiers changed from: private */
+    public void closeClassifier() {
+        synchronized (this.lock) {
+            this.destroyed = true;
+            if (this.classifier != null) {
+                this.classifier.close();
+                this.classifier = null;
+            }
+        }
+    }
+
+    /* access modifiers changed from: private */
+    public static void closeFrameRing(HandlerThread cameraThread2, FrameRing ring) {
+        if (cameraThread2 != null) {
+            try {
+                cameraThread2.join();
+            } catch (InterruptedException e) {
+                Log.w(TAG, "Interrupted waiting for the camera thread; frame buffers stay leased.");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        ring.close();
+    }
+
+    private static CameraCharacteristics getCharacteristics(CameraManager manager, String cameraId2) throws CameraAccessException {
+        CameraCharacteristics characteristics;
+        synchronized (characteristicsCache) {
+            characteristics = (CameraCharacteristics) characteristicsCache.get(cameraId2);
+            if (characteristics == null) {
+                characteristics = manager.getCameraCharacteristics(cameraId2);
+                characteristicsCache.put(cameraId2, characteristics);
+            }
+        }
+        return characteristics;
+    }
+
+    private static String[] getCameraIds(CameraManager manager) throws CameraAccessException {
+        String[] ids;
+        synchronized (characteristicsCache) {
+            if (cameraIdListCache == null) {
+                cameraIdListCache = manager.getCameraIdList();
+            }
+            ids = cameraIdListCache;
+        }
+        return ids;
+    }
+
+    private boolean setUpCameraOutputs(Activity activity, int width, int height, int displayRotation, Point displaySize) {
+        if (this.cameraId != null && this.previewSize != null && width == this.setUpWidth && height == this.setUpHeight && displayRotation == this.setUpRotation) {
+            return true;
+        }
         CameraManager manager = (CameraManager) activity.getSystemService("camera");
         try {
-            for (String cameraId2 : manager.getCameraIdList()) {
-                CameraCharacteristics characteristics = manager.getCameraCharacteristics(cameraId2);
+            for (String cameraId2 : getCameraIds(manager)) {
+                CameraCharacteristics characteristics = getCharacteristics(manager, cameraId2);
                 Integer facing = (Integer) characteristics.get(CameraCharacteristics.LENS_FACING);
                 if (facing == null || facing.intValue() != 0) {
                     StreamConfigurationMap map = (StreamConfigurationMap) characteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
                     if (map != null) {
-                        Size largest = (Size) Collections.max(Arrays.asList(map.getOutputSizes(256)), new CompareSizesByArea());
-                        this.imageReader = ImageReader.newInstance(largest.getWidth(), largest.getHeight(), 256, 2);
-                        int displayRotation = activity.getWindowManager().getDefaultDisplay().getRotation();
+                        Size largest = (Size) Collections.max(Arrays.asList(map.getOutputSizes(256)), new StreamSizeNegotiator.CompareSizesByArea());
                         int sensorOrientation = ((Integer) characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION)).intValue();
                         boolean swappedDimensions = false;
                         switch (displayRotation) {
@@ -288,8 +451,6 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
                                 Log.e(str, sb.append("Display rotation is invalid: ").append(displayRotation).toString());
                                 break;
                         }
-                        Point displaySize = new Point();
-                        activity.getWindowManager().getDefaultDisplay().getSize(displaySize);
                         int rotatedPreviewWidth = width;
                         int rotatedPreviewHeight = height;
                         int maxPreviewWidth = displaySize.x;
@@ -306,22 +467,30 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
                         if (maxPreviewHeight > MAX_PREVIEW_HEIGHT) {
                             maxPreviewHeight = MAX_PREVIEW_HEIGHT;
                         }
-                        this.previewSize = chooseOptimalSize(map.getOutputSizes(SurfaceTexture.class), rotatedPreviewWidth, rotatedPreviewHeight, maxPreviewWidth, maxPreviewHeight, largest);
-                        if (getResources().getConfiguration().orientation == 2) {
-                            this.textureView.setAspectRatio(this.previewSize.getWidth(), this.previewSize.getHeight());
-                        } else {
-                            this.textureView.setAspectRatio(this.previewSize.getHeight(), this.previewSize.getWidth());
-                        }
+                        this.previewSize = StreamSizeNegotiator.choosePreviewSize(map.getOutputSizes(SurfaceTexture.class), rotatedPreviewWidth, rotatedPreviewHeight, maxPreviewWidth, maxPreviewHeight, largest);
+                        this.inferenceSize = StreamSizeNegotiator.chooseInferenceSize(map.getOutputSizes(35), 224, 224, this.previewSize);
+                        this.sensorOrientation = sensorOrientation;
+                        this.inferenceRotation = ((sensorOrientation - (displayRotation * 90)) + 360) % 360;
                         this.cameraId = cameraId2;
-                        return;
+                        this.setUpWidth = width;
+                        this.setUpHeight = height;
+                        this.setUpRotation = displayRotation;
+                        return true;
                     }
                 }
             }
         } catch (CameraAccessException e) {
             ThrowableExtension.printStackTrace(e);
         } catch (NullPointerException e2) {
-            ErrorDialog.newInstance(getString(R.string.camera_error)).show(getChildFragmentManager(), FRAGMENT_DIALOG);
+            activity.runOnUiThread(new Runnable() {
+                public void run() {
+                    if (Camera2BasicFragment.this.isAdded()) {
+                        ErrorDialog.newInstance(Camera2BasicFragment.this.getString(R.string.camera_error)).show(Camera2BasicFragment.this.getChildFragmentManager(), Camera2BasicFragment.FRAGMENT_DIALOG);
+                    }
+                }
+            });
         }
+        return false;
     }
 
     private String[] getRequiredPermissions() {
@@ -338,24 +507,45 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
     }
 
     /* access modifiers changed from: private */
-    public void openCamera(int width, int height) {
+    public void openCamera(final int width, final int height) {
         if (this.checkedPermissions || allPermissionsGranted()) {
             this.checkedPermissions = true;
-            setUpCameraOutputs(width, height);
-            configureTransform(width, height);
-            CameraManager manager = (CameraManager) getActivity().getSystemService("camera");
-            try {
-                if (!this.cameraOpenCloseLock.tryAcquire(2500, TimeUnit.MILLISECONDS)) {
-                    throw new RuntimeException("Time out waiting to lock camera opening.");
+            final Activity activity = getActivity();
+            final int displayRotation = activity.getWindowManager().getDefaultDisplay().getRotation();
+            final Point displaySize = new Point();
+            activity.getWindowManager().getDefaultDisplay().getSize(displaySize);
+            final boolean landscape = getResources().getConfiguration().orientation == 2;
+            this.cameraHandler.post(new Runnable() {
+                public void run() {
+                    Camera2BasicFragment.this.openCameraOnCameraThread(activity, width, height, displayRotation, displaySize, landscape);
+                }
+            });
+            return;
+        }
+        FragmentCompat.requestPermissions(this, getRequiredPermissions(), 1);
+    }
+
+    /* access modifiers changed from: private */
+    public void openCameraOnCameraThread(Activity activity, final int width, final int height, int displayRotation, Point displaySize, final boolean landscape) {
+        if (this.cameraState == 0 && setUpCameraOutputs(activity, width, height, displayRotation, displaySize)) {
+            final Size size = this.previewSize;
+            activity.runOnUiThread(new Runnable() {
+                public void run() {
+                    if (landscape) {
+                        Camera2BasicFragment.this.textureView.setAspectRatio(size.getWidth(), size.getHeight());
+                    } else {
+                        Camera2BasicFragment.this.textureView.setAspectRatio(size.getHeight(), size.getWidth());
+                    }
+                    Camera2BasicFragment.this.configureTransform(width, height);
                 }
-                manager.openCamera(this.cameraId, this.stateCallback, this.backgroundHandler);
+            });
+            try {
+                this.cameraState = 1;
+                ((CameraManager) activity.getSystemService("camera")).openCamera(this.cameraId, this.stateCallback, this.cameraHandler);
             } catch (CameraAccessException e) {
+                this.cameraState = 0;
                 ThrowableExtension.printStackTrace(e);
-            } catch (InterruptedException e2) {
-                throw new RuntimeException("Interrupted while trying to lock camera opening.", e2);
             }
-        } else {
-            FragmentCompat.requestPermissions(this, getRequiredPermissions(), 1);
         }
     }
 
@@ -373,50 +563,46 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
     }
 
     private void closeCamera() {
-        try {
-            this.cameraOpenCloseLock.acquire();
-            if (this.captureSession != null) {
-                this.captureSession.close();
-                this.captureSession = null;
-            }
-            if (this.cameraDevice != null) {
-                this.cameraDevice.close();
-                this.cameraDevice = null;
+        this.cameraHandler.post(new Runnable() {
+            public void run() {
+                Camera2BasicFragment.this.closeCameraOnCameraThread();
             }
-            if (this.imageReader != null) {
-                this.imageReader.close();
-                this.imageReader = null;
-            }
-            this.cameraOpenCloseLock.release();
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Interrupted while trying to lock camera closing.", e);
-        } catch (Throwable th) {
-            this.cameraOpenCloseLock.release();
-            throw th;
+        });
+    }
+
+    /* access modifiers changed from: private */
+    public void closeCameraOnCameraThread() {
+        InferenceExecutor executor = this.inferenceExecutor;
+        if (executor != null) {
+            executor.pause();
+        }
+        this.cameraState = 0;
+        if (this.captureSession != null) {
+            this.captureSession.close();
+            this.captureSession = null;
+        }
+        if (this.cameraDevice != null) {
+            this.cameraDevice.close();
+            this.cameraDevice = null;
+        }
+        if (this.inferenceReader != null) {
+            this.inferenceReader.close();
+            this.inferenceReader = null;
         }
     }
 
-    private void startBackgroundThread() {
-        this.backgroundThread = new HandlerThread(HANDLE_THREAD_NAME);
-        this.backgroundThread.start();
-        this.backgroundHandler = new Handler(this.backgroundThread.getLooper());
-        synchronized (this.lock) {
-            this.runClassifier = true;
+    private void scheduleAutoTune() {
+        ImageClassifier current = this.classifier;
+        if (current != null && !current.isTuned()) {
+            this.inferenceExecutor.post(this.autoTune);
         }
-        this.backgroundHandler.post(this.periodicClassify);
     }
 
-    private void stopBackgroundThread() {
-        this.backgroundThread.quitSafely();
-        try {
-            this.backgroundThread.join();
-            this.backgroundThread = null;
-            this.backgroundHandler = null;
-            synchronized (this.lock) {
-                this.runClassifier = false;
-            }
-        } catch (InterruptedException e) {
-            ThrowableExtension.printStackTrace(e);
+    /* access modifiers changed from: private */
+    public void startInference() {
+        InferenceExecutor executor = this.inferenceExecutor;
+        if (executor != null) {
+            executor.resume();
         }
     }
 
@@ -429,14 +615,31 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
                 Surface surface = new Surface(texture);
                 this.previewRequestBuilder = this.cameraDevice.createCaptureRequest(1);
                 this.previewRequestBuilder.addTarget(surface);
-                this.cameraDevice.createCaptureSession(Arrays.asList(new Surface[]{surface}), new CameraCaptureSession.StateCallback() {
+                Surface[] outputs = {surface};
+                ImageClassifier current = this.classifier;
+                String inputPath = current != null ? current.getInputPath() : null;
+                this.inputPathTrial = (this.inferenceSize == null || inputPath != null) ? null : new AutoTuner.InputPathTrial();
+                if (this.inferenceSize != null && !AutoTuner.INPUT_BITMAP.equals(inputPath)) {
+                    if (this.inferenceReader != null) {
+                        this.inferenceReader.close();
+                    }
+                    this.inferenceReader = ImageReader.newInstance(this.inferenceSize.getWidth(), this.inferenceSize.getHeight(), 35, INFERENCE_MAX_IMAGES);
+                    this.inferenceReader.setOnImageAvailableListener(this.onInferenceImageAvailable, this.cameraHandler);
+                    Surface inferenceSurface = this.inferenceReader.getSurface();
+                    this.previewRequestBuilder.addTarget(inferenceSurface);
+                    outputs = new Surface[]{surface, inferenceSurface};
+                }
+                this.cameraDevice.createCaptureSession(Arrays.asList(outputs), new CameraCaptureSession.StateCallback() {
                     public void onConfigured(@NonNull CameraCaptureSession cameraCaptureSession) {
-                        if (Camera2BasicFragment.this.cameraDevice != null) {
+                        if (Camera2BasicFragment.this.cameraDevice == null || Camera2BasicFragment.this.cameraState != 2) {
+                            cameraCaptureSession.close();
+                        } else {
                             Camera2BasicFragment.this.captureSession = cameraCaptureSession;
                             try {
                                 Camera2BasicFragment.this.previewRequestBuilder.set(CaptureRequest.CONTROL_AF_MODE, Integer.valueOf(4));
                                 Camera2BasicFragment.this.previewRequest = Camera2BasicFragment.this.previewRequestBuilder.build();
-                                Camera2BasicFragment.this.captureSession.setRepeatingRequest(Camera2BasicFragment.this.previewRequest, Camera2BasicFragment.this.captureCallback, Camera2BasicFragment.this.backgroundHandler);
+                                Camera2BasicFragment.this.captureSession.setRepeatingRequest(Camera2BasicFragment.this.previewRequest, Camera2BasicFragment.this.captureCallback, Camera2BasicFragment.this.cameraHandler);
+                                Camera2BasicFragment.this.startInference();
                             } catch (CameraAccessException e) {
                                 ThrowableExtension.printStackTrace(e);
                             }
@@ -446,7 +649,7 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
                     public void onConfigureFailed(@NonNull CameraCaptureSession cameraCaptureSession) {
                         Camera2BasicFragment.this.showToast("Failed");
                     }
-                }, null);
+                }, this.cameraHandler);
                 return;
             }
             throw new AssertionError();
@@ -480,13 +683,63 @@ public class Camera2BasicFragment extends Fragment implements OnRequestPermissio
 
     /* access modifiers changed from: private */
     public void classifyFrame() {
-        if (this.classifier == null || getActivity() == null || this.cameraDevice == null) {
-            showToast("Uninitialized Classifier or invalid context.");
+        if (this.inferenceReader != null) {
+            AutoTuner.InputPathTrial trial = this.inputPathTrial;
+            if (trial != null) {
+                sampleInputPaths(trial);
+            }
+            FrameRing.Frame frame = this.frameRing.awaitLatest(FRAME_WAIT_MS, TimeUnit.MILLISECONDS);
+            if (frame != null) {
+                try {
+                    synchronized (this.lock) {
+                        if (this.classifier == null || getActivity() == null) {
+                            showToast("Uninitialized Classifier or invalid context.");
+                        } else {
+                            showToast(this.classifier.classifyFrame(frame));
+                        }
+                    }
+                } finally {
+                    this.frameRing.release(frame);
+                }
+            }
             return;
         }
-        Bitmap bitmap = this.textureView.getBitmap(224, 224);
-        String textToShow = this.classifier.classifyFrame(bitmap);
-        bitmap.recycle();
-        showToast(textToShow);
+        synchronized (this.lock) {
+            if (this.classifier != null && getActivity() != null && this.cameraDevice != null) {
+                Bitmap bitmap = this.textureView.getBitmap(224, 224);
+                String textToShow = this.classifier.classifyFrame(bitmap);
+                bitmap.recycle();
+                showToast(textToShow);
+                return;
+            }
+        }
+        showToast("Uninitialized Classifier or invalid context.");
+        SystemClock.sleep(FRAME_WAIT_MS);
+    }
+
+    private void sampleInputPaths(AutoTuner.InputPathTrial trial) {
+        ImageClassifier tuned = null;
+        synchronized (this.lock) {
+            if (this.classifier == null || getActivity() == null) {
+                return;
+            }
+            if (this.classifier.getInputPath() != null) {
+                this.inputPathTrial = null;
+            } else if (trial.needsBitmap()) {
+                long start = System.nanoTime();
+                Bitmap bitmap = this.textureView.getBitmap(224, 224);
+                if (bitmap != null) {
+                    this.classifier.prepareInput(bitmap);
+                    trial.addBitmap(System.nanoTime() - start);
+                    bitmap.recycle();
+                }
+            } else if (trial.isComplete()) {
+                this.inputPathTrial = null;
+                tuned = this.classifier;
+            }
+        }
+        if (tuned != null) {
+            tuned.tuneInputPath(trial);
+        }
     }
 }
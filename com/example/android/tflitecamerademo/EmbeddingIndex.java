@@ -0,0 +1,332 @@
+package com.example.android.tflitecamerademo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Random;
+
+class EmbeddingIndex {
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC = 1162691160;
+    private static final int VERSION = 1;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private final FileChannel channel;
+    private float[][] centroids;
+    private int count;
+    private final int dim;
+    private final RandomAccessFile file;
+    private int[] listSizes;
+    private int[][] lists;
+    private final byte[] queryBytes;
+    private final byte[] rowBytes;
+    private final int rowStride;
+
+    private EmbeddingIndex(RandomAccessFile file2, int dim2, int capacity2, int count2) throws IOException {
+        this.file = file2;
+        this.channel = file2.getChannel();
+        this.dim = dim2;
+        this.rowStride = dim2 + 4;
+        this.rowBytes = new byte[dim2];
+        this.queryBytes = new byte[dim2];
+        this.count = count2;
+        map(capacity2);
+    }
+
+    static EmbeddingIndex open(File path, int dim2, int initialCapacity) throws IOException {
+        if (dim2 <= 0 || initialCapacity <= 0) {
+            throw new IllegalArgumentException("dim and initialCapacity must be > 0");
+        }
+        RandomAccessFile raf = new RandomAccessFile(path, "rw");
+        try {
+            if (raf.length() < ((long) HEADER_SIZE)) {
+                EmbeddingIndex index = new EmbeddingIndex(raf, dim2, initialCapacity, 0);
+                index.writeHeader();
+                return index;
+            }
+            int magic = raf.readInt();
+            int version = raf.readInt();
+            int storedDim = raf.readInt();
+            int storedCount = raf.readInt();
+            int storedCapacity = raf.readInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not an embedding index file: " + path);
+            } else if (storedDim != dim2) {
+                throw new IOException("Embedding index " + path + " has dimension " + storedDim + ", expected " + dim2);
+            } else if (storedCount < 0 || storedCount > storedCapacity) {
+                throw new IOException("Corrupt embedding index header in " + path);
+            } else {
+                return new EmbeddingIndex(raf, dim2, Math.max(storedCapacity, initialCapacity), storedCount);
+            }
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private void map(int capacity2) throws IOException {
+        this.buffer = this.channel.map(MapMode.READ_WRITE, 0, ((long) HEADER_SIZE) + (((long) capacity2) * ((long) this.rowStride)));
+        this.buffer.order(ByteOrder.BIG_ENDIAN);
+        this.capacity = capacity2;
+    }
+
+    private void writeHeader() {
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, VERSION);
+        this.buffer.putInt(8, this.dim);
+        this.buffer.putInt(12, this.count);
+        this.buffer.putInt(16, this.capacity);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int size() {
+        return this.count;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int dimension() {
+        return this.dim;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int add(float[] vector) throws IOException {
+        if (this.count == this.capacity) {
+            this.buffer.force();
+            map(this.capacity * 2);
+        }
+        int id = this.count;
+        float scale = quantize(vector, this.rowBytes);
+        int offset = rowOffset(id);
+        this.buffer.putFloat(offset, scale);
+        this.buffer.position(offset + 4);
+        this.buffer.put(this.rowBytes, 0, this.dim);
+        this.count++;
+        this.buffer.putInt(12, this.count);
+        this.buffer.putInt(16, this.capacity);
+        if (this.centroids != null) {
+            addToList(nearestCentroid(vector), id);
+        }
+        return id;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int search(float[] query, int k, int[] outIds, float[] outScores) {
+        checkResultArgs(k, outIds, outScores);
+        float queryScale = quantize(query, this.queryBytes);
+        int found = 0;
+        for (int id = 0; id < this.count; id++) {
+            found = offer(id, score(id, queryScale), k, found, outIds, outScores);
+        }
+        return found;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void buildIvf(int nlist, int iterations, long seed) {
+        if (nlist <= 0 || nlist > this.count) {
+            throw new IllegalArgumentException("nlist must be in [1, size()], was " + nlist);
+        }
+        float[][] centers = new float[nlist][];
+        Random random = new Random(seed);
+        float[] row = new float[this.dim];
+        for (int c = 0; c < nlist; c++) {
+            centers[c] = new float[this.dim];
+            readRow(random.nextInt(this.count), centers[c]);
+        }
+        float[][] sums = new float[nlist][this.dim];
+        int[] sizes = new int[nlist];
+        this.centroids = centers;
+        for (int it = 0; it < iterations; it++) {
+            for (int c2 = 0; c2 < nlist; c2++) {
+                Arrays.fill(sums[c2], 0.0f);
+            }
+            Arrays.fill(sizes, 0);
+            for (int id = 0; id < this.count; id++) {
+                readRow(id, row);
+                int c3 = nearestCentroid(row);
+                sizes[c3]++;
+                float[] sum = sums[c3];
+                for (int d = 0; d < this.dim; d++) {
+                    sum[d] = sum[d] + row[d];
+                }
+            }
+            for (int c4 = 0; c4 < nlist; c4++) {
+                if (sizes[c4] > 0) {
+                    normalize(sums[c4], centers[c4]);
+                }
+            }
+        }
+        this.lists = new int[nlist][];
+        this.listSizes = new int[nlist];
+        for (int id2 = 0; id2 < this.count; id2++) {
+            readRow(id2, row);
+            addToList(nearestCentroid(row), id2);
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int searchApproximate(float[] query, int k, int nprobe, int[] outIds, float[] outScores) {
+        checkResultArgs(k, outIds, outScores);
+        if (nprobe <= 0) {
+            throw new IllegalArgumentException("nprobe must be > 0, was " + nprobe);
+        } else if (this.centroids == null) {
+            return search(query, k, outIds, outScores);
+        }
+        int probes = Math.min(nprobe, this.centroids.length);
+        int[] probeIds = new int[probes];
+        float[] probeScores = new float[probes];
+        int probeCount = 0;
+        for (int c = 0; c < this.centroids.length; c++) {
+            probeCount = offer(c, dot(this.centroids[c], query), probes, probeCount, probeIds, probeScores);
+        }
+        float queryScale = quantize(query, this.queryBytes);
+        int found = 0;
+        for (int p = 0; p < probeCount; p++) {
+            int[] list = this.lists[probeIds[p]];
+            int size = this.listSizes[probeIds[p]];
+            for (int i = 0; i < size; i++) {
+                found = offer(list[i], score(list[i], queryScale), k, found, outIds, outScores);
+            }
+        }
+        return found;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void flush() {
+        this.buffer.force();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void close() throws IOException {
+        flush();
+        this.channel.close();
+        this.file.close();
+        this.buffer = null;
+    }
+
+    private static void checkResultArgs(int k, int[] outIds, float[] outScores) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be > 0, was " + k);
+        } else if (outIds.length < k || outScores.length < k) {
+            throw new IllegalArgumentException("Result arrays must hold at least k = " + k + " entries");
+        }
+    }
+
+    private int rowOffset(int id) {
+        return (this.rowStride * id) + HEADER_SIZE;
+    }
+
+    private float score(int id, float queryScale) {
+        int offset = rowOffset(id);
+        float scale = this.buffer.getFloat(offset);
+        this.buffer.position(offset + 4);
+        this.buffer.get(this.rowBytes, 0, this.dim);
+        byte[] a = this.rowBytes;
+        byte[] b = this.queryBytes;
+        int acc = 0;
+        for (int d = 0; d < this.dim; d++) {
+            acc += a[d] * b[d];
+        }
+        return ((float) acc) * scale * queryScale;
+    }
+
+    private void readRow(int id, float[] out) {
+        int offset = rowOffset(id);
+        float scale = this.buffer.getFloat(offset);
+        this.buffer.position(offset + 4);
+        this.buffer.get(this.rowBytes, 0, this.dim);
+        for (int d = 0; d < this.dim; d++) {
+            out[d] = ((float) this.rowBytes[d]) * scale;
+        }
+    }
+
+    private int nearestCentroid(float[] vector) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int c = 0; c < this.centroids.length; c++) {
+            float s = dot(this.centroids[c], vector);
+            if (s > bestScore) {
+                bestScore = s;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void addToList(int list, int id) {
+        int[] ids = this.lists[list];
+        int size = this.listSizes[list];
+        if (ids == null) {
+            ids = new int[16];
+        } else if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        this.lists[list] = ids;
+        this.listSizes[list] = size + 1;
+    }
+
+    private float quantize(float[] vector, byte[] out) {
+        if (vector.length != this.dim) {
+            throw new IllegalArgumentException("Expected a vector of dimension " + this.dim + ", got " + vector.length);
+        }
+        float norm = 0.0f;
+        float maxAbs = 0.0f;
+        for (float v : vector) {
+            norm += v * v;
+            maxAbs = Math.max(maxAbs, Math.abs(v));
+        }
+        if (norm == 0.0f) {
+            Arrays.fill(out, (byte) 0);
+            return 0.0f;
+        }
+        float inv = 127.0f / maxAbs;
+        for (int d = 0; d < this.dim; d++) {
+            out[d] = (byte) Math.round(vector[d] * inv);
+        }
+        return maxAbs / (((float) Math.sqrt((double) norm)) * 127.0f);
+    }
+
+    private static void normalize(float[] in, float[] out) {
+        float norm = 0.0f;
+        for (float v : in) {
+            norm += v * v;
+        }
+        float inv = norm > 0.0f ? 1.0f / ((float) Math.sqrt((double) norm)) : 0.0f;
+        for (int d = 0; d < in.length; d++) {
+            out[d] = in[d] * inv;
+        }
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float acc = 0.0f;
+        for (int d = 0; d < a.length; d++) {
+            acc += a[d] * b[d];
+        }
+        return acc;
+    }
+
+    private static int offer(int id, float score, int k, int found, int[] ids, float[] scores) {
+        int j;
+        if (found < k) {
+            j = found;
+            found++;
+        } else if (score <= scores[k - 1]) {
+            return found;
+        } else {
+            j = k - 1;
+        }
+        while (j > 0 && scores[j - 1] < score) {
+            scores[j] = scores[j - 1];
+            ids[j] = ids[j - 1];
+            j--;
+        }
+        scores[j] = score;
+        ids[j] = id;
+        return found;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.android.tflitecamerademo;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.tensorflow.lite.DirectBufferPool;
+
+final class FrameHandoffBenchmark {
+    private static final long CONSUMER_WAIT_MS = 10;
+    private static final int RING_SLOTS = 4;
+
+    static final class Result {
+        final long consumed;
+        final String name;
+        final long published;
+        final FrameReplayer.Stats stats;
+        final long torn;
+
+        Result(String name2, long published2, long consumed2, long torn2, FrameReplayer.Stats stats2) {
+            this.name = name2;
+            this.published = published2;
+            this.consumed = consumed2;
+            this.torn = torn2;
+            this.stats = stats2;
+        }
+
+        public String toString() {
+            return this.name + ": " + this.published + " published, " + this.consumed + " consumed, " + this.torn + " torn, hand-off " + this.stats;
+        }
+    }
+
+    private FrameHandoffBenchmark() {
+    }
+
+    static Result[] compare(int frames, int pixelCount, long publishIntervalNanos, long consumeNanos) throws InterruptedException {
+        return new Result[]{runRing(frames, pixelCount, publishIntervalNanos, consumeNanos), runHandler(frames, pixelCount, publishIntervalNanos, consumeNanos)};
+    }
+
+    static Result runRing(int frames, int pixelCount, long publishIntervalNanos, final long consumeNanos) throws InterruptedException {
+        checkArgs(frames, pixelCount);
+        DirectBufferPool pool = new DirectBufferPool(RING_SLOTS * Math.max(1024, Integer.highestOneBit(pixelCount * 4) * 2));
+        final FrameRing ring = new FrameRing(RING_SLOTS, pixelCount, pixelCount * 4, pool);
+        final long[] latencies = new long[frames];
+        final long[] counts = new long[2];
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread consumer = new Thread(new Runnable() {
+            public void run() {
+                while (true) {
+                    FrameRing.Frame frame = ring.awaitLatest(FrameHandoffBenchmark.CONSUMER_WAIT_MS, TimeUnit.MILLISECONDS);
+                    if (frame == null) {
+                        if (done.get()) {
+                            frame = ring.claimLatest();
+                            if (frame == null) {
+                                return;
+                            }
+                        } else {
+                            continue;
+                        }
+                    }
+                    try {
+                        long received = System.nanoTime();
+                        if (!FrameHandoffBenchmark.isIntact(frame.pixels, frame.input.getInt(0))) {
+                            counts[1]++;
+                        }
+                        int idx = (int) counts[0];
+                        latencies[idx] = received - frame.timestampNanos;
+                        counts[0] = (long) (idx + 1);
+                        FrameHandoffBenchmark.spin(consumeNanos);
+                    } finally {
+                        ring.release(frame);
+                    }
+                }
+            }
+        }, "FrameHandoffBenchmarkRing");
+        long start = System.nanoTime();
+        consumer.start();
+        for (int seq = 0; seq < frames; seq++) {
+            FrameRing.Frame frame = ring.beginWrite();
+            fill(frame.pixels, seq);
+            frame.input.putInt(0, seq);
+            ring.publish(System.nanoTime());
+            spin(publishIntervalNanos);
+        }
+        done.set(true);
+        consumer.join();
+        long elapsed = System.nanoTime() - start;
+        ring.close();
+        long[] used = new long[(int) counts[0]];
+        System.arraycopy(latencies, 0, used, 0, used.length);
+        return new Result("FrameRing", (long) frames, counts[0], counts[1], new FrameReplayer.Stats(used, elapsed));
+    }
+
+    static Result runHandler(int frames, int pixelCount, long publishIntervalNanos, final long consumeNanos) throws InterruptedException {
+        checkArgs(frames, pixelCount);
+        HandlerThread thread = new HandlerThread("FrameHandoffBenchmarkHandler");
+        thread.start();
+        Handler handler = new Handler(thread.getLooper());
+        final long[] latencies = new long[frames];
+        final AtomicLong torn = new AtomicLong();
+        final CountDownLatch remaining = new CountDownLatch(frames);
+        int[] source = new int[pixelCount];
+        long start = System.nanoTime();
+        for (int seq = 0; seq < frames; seq++) {
+            fill(source, seq);
+            final int[] copy = (int[]) source.clone();
+            final int expected = seq;
+            final long published = System.nanoTime();
+            handler.post(new Runnable() {
+                public void run() {
+                    latencies[expected] = System.nanoTime() - published;
+                    if (!FrameHandoffBenchmark.isIntact(copy, expected)) {
+                        torn.incrementAndGet();
+                    }
+                    FrameHandoffBenchmark.spin(consumeNanos);
+                    remaining.countDown();
+                }
+            });
+            spin(publishIntervalNanos);
+        }
+        remaining.await();
+        long elapsed = System.nanoTime() - start;
+        thread.quitSafely();
+        return new Result("Handler", (long) frames, (long) frames, torn.get(), new FrameReplayer.Stats(latencies, elapsed));
+    }
+
+    private static void checkArgs(int frames, int pixelCount) {
+        if (frames <= 0 || pixelCount <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid benchmark size (frames %d, pixels %d)", new Object[]{Integer.valueOf(frames), Integer.valueOf(pixelCount)}));
+        }
+    }
+
+    private static void fill(int[] pixels, int value) {
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = value;
+        }
+    }
+
+    /* access modifiers changed from: private */
+    public static boolean isIntact(int[] pixels, int expected) {
+        for (int pixel : pixels) {
+            if (pixel != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* access modifiers changed from: private */
+    public static void spin(long nanos) {
+        if (nanos > 0) {
+            long deadline = System.nanoTime() + nanos;
+            while (System.nanoTime() < deadline) {
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.android.tflitecamerademo;
+
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+
+class FrameRecorder {
+    /* access modifiers changed from: private */
+    public static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+    static final int FORMAT_ARGB8888 = 1;
+    static final int FORMAT_RGB888 = 0;
+    static final int FORMAT_YUV420 = 2;
+    static final int HEADER_SIZE = 32;
+    private static final int HEADER_UPDATE_INTERVAL = 30;
+    static final int MAGIC = 1179798866;
+    private static final int QUEUE_DEPTH = 4;
+    private static final String TAG = "TfLiteCameraDemo";
+    static final int VERSION = 1;
+    private static final String WRITER_THREAD_NAME = "FrameRecorderWriter";
+    private final FileChannel channel;
+    private boolean closed;
+    /* access modifiers changed from: private */
+    public volatile int count;
+    private int dropped;
+    /* access modifiers changed from: private */
+    public volatile IOException failure;
+    private final RandomAccessFile file;
+    private final int format;
+    private final int frameBytes;
+    /* access modifiers changed from: private */
+    public final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+    private final int height;
+    /* access modifiers changed from: private */
+    public final ArrayBlockingQueue<ByteBuffer> pending = new ArrayBlockingQueue<>(QUEUE_DEPTH + 1);
+    private final int width;
+    private final Thread writer;
+
+    FrameRecorder(File path, int format2, int width2, int height2, int frameBytes2) throws IOException {
+        if (frameBytes2 <= 0 || width2 <= 0 || height2 <= 0) {
+            throw new IllegalArgumentException("Frame dimensions must be > 0");
+        }
+        this.format = format2;
+        this.width = width2;
+        this.height = height2;
+        this.frameBytes = frameBytes2;
+        this.file = new RandomAccessFile(path, "rw");
+        this.file.setLength(0);
+        this.channel = this.file.getChannel();
+        for (int i = 0; i < QUEUE_DEPTH; i++) {
+            this.free.add(ByteBuffer.allocateDirect(frameBytes2 + 8).order(ByteOrder.BIG_ENDIAN));
+        }
+        writeHeader();
+        this.writer = new Thread(new Runnable() {
+            public void run() {
+                FrameRecorder.this.drain();
+            }
+        }, WRITER_THREAD_NAME);
+        this.writer.start();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void record(ByteBuffer frame, long timestampNanos) throws IOException {
+        if (this.closed) {
+            throw new IOException("Frame recorder is closed");
+        }
+        IOException error = this.failure;
+        if (error != null) {
+            throw error;
+        } else if (frame.limit() < this.frameBytes) {
+            throw new IllegalArgumentException("Frame has " + frame.limit() + " bytes, expected " + this.frameBytes);
+        } else {
+            ByteBuffer record = (ByteBuffer) this.free.poll();
+            if (record == null) {
+                this.dropped++;
+                return;
+            }
+            ByteBuffer src = frame.duplicate();
+            src.position(0);
+            src.limit(this.frameBytes);
+            record.clear();
+            record.putLong(timestampNanos);
+            record.put(src);
+            record.flip();
+            this.pending.add(record);
+        }
+    }
+
+    /* access modifiers changed from: private */
+    public void drain() {
+        while (true) {
+            try {
+                ByteBuffer record = (ByteBuffer) this.pending.take();
+                if (record != CLOSE) {
+                    if (this.failure == null) {
+                        try {
+                            write(record);
+                        } catch (IOException e) {
+                            Log.e(TAG, "Frame recording failed after " + this.count + " frames", e);
+                            this.failure = e;
+                        }
+                    }
+                    this.free.add(record);
+                } else {
+                    return;
+                }
+            } catch (InterruptedException e2) {
+                return;
+            }
+        }
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        long position = ((long) HEADER_SIZE) + (((long) this.count) * ((long) (this.frameBytes + 8)));
+        while (record.hasRemaining()) {
+            position += (long) this.channel.write(record, position);
+        }
+        this.count++;
+        if (this.count % HEADER_UPDATE_INTERVAL == 0) {
+            writeHeader();
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getCount() {
+        return this.count;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int getDroppedCount() {
+        return this.dropped;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            boolean interrupted = false;
+            this.pending.add(CLOSE);
+            while (this.writer.isAlive()) {
+                try {
+                    this.writer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                writeHeader();
+                this.channel.force(true);
+            } finally {
+                this.channel.close();
+                this.file.close();
+            }
+            IOException error = this.failure;
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.format).putInt(this.width).putInt(this.height).putInt(this.frameBytes).putInt(this.count);
+        header.clear();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += (long) this.channel.write(header, position);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.android.tflitecamerademo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import org.tensorflow.lite.Interpreter;
+
+class FrameReplayer {
+    private final MappedByteBuffer[] chunks;
+    private final int count;
+    private final int format;
+    private final int frameBytes;
+    private final int framesPerChunk;
+    private final int height;
+    private final int width;
+
+    interface Sink {
+        void onFrame(ByteBuffer byteBuffer, long j);
+    }
+
+    static class Stats {
+        final long elapsedNanos;
+        final long[] latencyNanos;
+
+        Stats(long[] latencyNanos2, long elapsedNanos2) {
+            this.latencyNanos = latencyNanos2;
+            this.elapsedNanos = elapsedNanos2;
+            Arrays.sort(this.latencyNanos);
+        }
+
+        /* access modifiers changed from: 0000 */
+        public long percentileNanos(int percentile) {
+            if (this.latencyNanos.length == 0) {
+                return 0;
+            }
+            return this.latencyNanos[Math.min(this.latencyNanos.length - 1, (this.latencyNanos.length * percentile) / 100)];
+        }
+
+        /* access modifiers changed from: 0000 */
+        public double framesPerSecond() {
+            if (this.elapsedNanos == 0) {
+                return 0.0d;
+            }
+            return (((double) this.latencyNanos.length) * 1.0E9d) / ((double) this.elapsedNanos);
+        }
+
+        public String toString() {
+            return String.format("%d frames, %.1f fps, p50 %.2fms, p90 %.2fms, p99 %.2fms", new Object[]{Integer.valueOf(this.latencyNanos.length), Double.valueOf(framesPerSecond()), Double.valueOf(((double) percentileNanos(50)) / 1000000.0d), Double.valueOf(((double) percentileNanos(90)) / 1000000.0d), Double.valueOf(((double) percentileNanos(99)) / 1000000.0d)});
+        }
+    }
+
+    FrameReplayer(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            if (file.readInt() != FrameRecorder.MAGIC || file.readInt() != FrameRecorder.VERSION) {
+                throw new IOException("Not a frame recording: " + path);
+            }
+            this.format = file.readInt();
+            this.width = file.readInt();
+            this.height = file.readInt();
+            this.frameBytes = file.readInt();
+            int headerCount = file.readInt();
+            if (this.frameBytes <= 0 || this.frameBytes > 2147483639 || headerCount < 0 || file.length() < ((long) FrameRecorder.HEADER_SIZE)) {
+                throw new IOException("Corrupt frame recording: " + path);
+            }
+            long complete = (file.length() - ((long) FrameRecorder.HEADER_SIZE)) / ((long) (this.frameBytes + 8));
+            if (complete > 2147483647L) {
+                throw new IOException("Frame recording is too large to map: " + path);
+            }
+            this.count = (int) complete;
+            if (this.count < headerCount) {
+                throw new IOException("Truncated frame recording: " + path + " has " + this.count + " of " + headerCount + " frames");
+            }
+            int recordBytes = this.frameBytes + 8;
+            this.framesPerChunk = Integer.MAX_VALUE / recordBytes;
+            this.chunks = new MappedByteBuffer[(((this.count + this.framesPerChunk) - 1) / this.framesPerChunk)];
+            long position = (long) FrameRecorder.HEADER_SIZE;
+            for (int i = 0; i < this.chunks.length; i++) {
+                long length = ((long) Math.min(this.framesPerChunk, this.count - (this.framesPerChunk * i))) * ((long) recordBytes);
+                this.chunks[i] = file.getChannel().map(MapMode.READ_ONLY, position, length);
+                position += length;
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    static Sink interpreterSink(final Interpreter interpreter, final Object output) {
+        return new Sink() {
+            public void onFrame(ByteBuffer frame, long timestampNanos) {
+                interpreter.run(frame, output);
+            }
+        };
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getCount() {
+        return this.count;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getFormat() {
+        return this.format;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public long timestampNanos(int index) {
+        return chunkOf(index).getLong(recordOffset(index));
+    }
+
+    /* access modifiers changed from: 0000 */
+    public ByteBuffer frame(int index) {
+        ByteBuffer view = chunkOf(index).duplicate();
+        int offset = recordOffset(index) + 8;
+        view.position(offset);
+        view.limit(this.frameBytes + offset);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Stats replay(Sink sink, boolean realTime) throws InterruptedException {
+        long[] latencies = new long[this.count];
+        ByteBuffer[] views = new ByteBuffer[this.count];
+        for (int i = 0; i < this.count; i++) {
+            views[i] = frame(i);
+        }
+        long firstTimestamp = this.count > 0 ? timestampNanos(0) : 0;
+        long start = System.nanoTime();
+        for (int i2 = 0; i2 < this.count; i2++) {
+            long timestamp = timestampNanos(i2);
+            if (realTime) {
+                long waitNanos = (timestamp - firstTimestamp) - (System.nanoTime() - start);
+                if (waitNanos > 0) {
+                    Thread.sleep(waitNanos / 1000000, (int) (waitNanos % 1000000));
+                }
+            }
+            long frameStart = System.nanoTime();
+            views[i2].rewind();
+            sink.onFrame(views[i2], timestamp);
+            latencies[i2] = System.nanoTime() - frameStart;
+        }
+        return new Stats(latencies, System.nanoTime() - start);
+    }
+
+    private MappedByteBuffer chunkOf(int index) {
+        if (index >= 0 && index < this.count) {
+            return this.chunks[index / this.framesPerChunk];
+        }
+        throw new IndexOutOfBoundsException("Frame " + index + " of " + this.count);
+    }
+
+    private int recordOffset(int index) {
+        return (this.frameBytes + 8) * (index % this.framesPerChunk);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.android.tflitecamerademo;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.tensorflow.lite.DirectBufferPool;
+
+final class FrameRing {
+    private static final int MIN_SLOTS = 4;
+    private static final long NONE = -1;
+    private final AtomicLong claimed = new AtomicLong(NONE);
+    private volatile long consumedCount;
+    private final DirectBufferPool pool;
+    private long lastClaimed = NONE;
+    private final int mask;
+    private long nextSequence;
+    private final AtomicLong published = new AtomicLong(NONE);
+    private volatile long publishedCount;
+    private final Frame[] slots;
+    private volatile Thread waiter;
+    private Frame writing;
+
+    static final class Frame {
+        final ByteBuffer input;
+        final int[] pixels;
+        /* access modifiers changed from: private */
+        public volatile long sequence = FrameRing.NONE;
+        long timestampNanos;
+
+        Frame(int pixelCount, ByteBuffer input2) {
+            this.pixels = new int[pixelCount];
+            this.input = input2;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public long getSequence() {
+            return this.sequence;
+        }
+    }
+
+    FrameRing(int slotCount, int pixelCount, int inputBytes, DirectBufferPool pool2) {
+        if (slotCount < MIN_SLOTS || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two >= 4, was " + slotCount);
+        }
+        this.pool = pool2;
+        this.slots = new Frame[slotCount];
+        int i = 0;
+        while (i < slotCount) {
+            try {
+                this.slots[i] = new Frame(pixelCount, pool2.acquire(inputBytes));
+                i++;
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+        this.mask = slotCount - 1;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void close() {
+        for (int i = 0; i < this.slots.length; i++) {
+            if (this.slots[i] != null) {
+                this.pool.release(this.slots[i].input);
+                this.slots[i] = null;
+            }
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Frame beginWrite() {
+        if (this.writing != null) {
+            throw new IllegalStateException("Previous frame was not published.");
+        }
+        long seq = this.nextSequence;
+        long held = this.claimed.get();
+        if (held != NONE && (held & ((long) this.mask)) == (((long) this.mask) & seq)) {
+            seq++;
+        }
+        Frame frame = this.slots[(int) (((long) this.mask) & seq)];
+        frame.sequence = NONE;
+        this.nextSequence = seq + 1;
+        this.writing = frame;
+        return frame;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void publish(long timestampNanos) {
+        Frame frame = this.writing;
+        if (frame == null) {
+            throw new IllegalStateException("No frame is being written.");
+        }
+        this.writing = null;
+        long seq = this.nextSequence - 1;
+        frame.timestampNanos = timestampNanos;
+        frame.sequence = seq;
+        this.published.set(seq);
+        this.publishedCount++;
+        Thread w = this.waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void abortWrite() {
+        this.writing = null;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Frame claimLatest() {
+        if (this.claimed.get() != NONE) {
+            throw new IllegalStateException("Previous frame was not released.");
+        }
+        while (true) {
+            long seq = this.published.get();
+            if (seq == NONE || seq == this.lastClaimed) {
+                return null;
+            }
+            this.claimed.set(seq);
+            if (this.published.get() - seq < ((long) (this.slots.length - 2))) {
+                Frame frame = this.slots[(int) (((long) this.mask) & seq)];
+                if (frame.sequence == seq) {
+                    this.lastClaimed = seq;
+                    this.consumedCount++;
+                    return frame;
+                }
+            }
+            this.claimed.set(NONE);
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Frame awaitLatest(long timeout, TimeUnit unit) {
+        Frame frame = claimLatest();
+        if (frame != null) {
+            return frame;
+        }
+        this.waiter = Thread.currentThread();
+        try {
+            frame = claimLatest();
+            if (frame == null) {
+                LockSupport.parkNanos(this, unit.toNanos(timeout));
+                frame = claimLatest();
+            }
+            return frame;
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void release(Frame frame) {
+        if (frame.sequence != this.claimed.get()) {
+            throw new IllegalStateException("Frame " + frame.sequence + " is not the claimed frame.");
+        }
+        this.claimed.set(NONE);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public long getPublishedCount() {
+        return this.publishedCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public long getConsumedCount() {
+        return this.consumedCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public long getDroppedCount() {
+        return this.publishedCount - this.consumedCount;
+    }
+}
@@ -3,81 +3,464 @@ package com.example.android.tflitecamerademo;
 import android.app.Activity;
 import android.content.res.AssetFileDescriptor;
 import android.graphics.Bitmap;
+import android.media.Image;
+import android.media.Image.Plane;
 import android.os.SystemClock;
+import android.support.v4.os.TraceCompat;
 import android.util.Log;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel.MapMode;
-import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
-import java.util.PriorityQueue;
+import java.util.Map;
+import org.tensorflow.lite.DirectBufferPool;
 import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.NativeLibraryLoader;
 
 public class ImageClassifier {
+    static final DirectBufferPool BUFFER_POOL = new DirectBufferPool(12582912);
+    private static final int CACHE_MAX_HAMMING_DISTANCE = 4;
+    private static final int CACHE_MAX_HITS_PER_ENTRY = 15;
+    private static final int CACHE_SIZE = 256;
+    private static final long CACHE_TTL_MS = 1000;
     private static final int DIM_BATCH_SIZE = 1;
     static final int DIM_IMG_SIZE_X = 224;
     static final int DIM_IMG_SIZE_Y = 224;
     private static final int DIM_PIXEL_SIZE = 3;
     private static final String LABEL_PATH = "labels.txt";
     private static final String MODEL_PATH = "mobilenet_quantized.tflite";
+    private static final float OUTPUT_SCALE = 0.00390625f;
+    private static final int OUTPUT_ZERO_POINT = 0;
     private static final int RESULTS_TO_SHOW = 3;
+    private static final int SHADOW_LOG_INTERVAL = 100;
     private static final String TAG = "TfLiteCameraDemo";
+    private static final int WARMUP_RUNS = 2;
+    private volatile ModelSlot active;
+    private final PerceptualHashCache resultCache = new PerceptualHashCache(CACHE_SIZE, CACHE_MAX_HAMMING_DISTANCE, CACHE_TTL_MS, CACHE_MAX_HITS_PER_ENTRY);
+    private byte[][] embeddingArray = null;
+    private int embeddingOutputIndex = -1;
+    private float embeddingScale;
+    private int embeddingZeroPoint;
+    private final Map<Integer, Object> embeddingOutputs = new HashMap();
+    private volatile FrameRecorder frameRecorder;
+    private volatile InferenceTelemetry telemetry;
     private ByteBuffer imgData = null;
     private int[] intValues = new int[50176];
     private List<String> labelList;
     private byte[][] labelProbArray = null;
-    private PriorityQueue<Entry<String, Float>> sortedLabels = new PriorityQueue<>(3, new Comparator<Entry<String, Float>>(this) {
-        public int compare(Entry<String, Float> o1, Entry<String, Float> o2) {
-            return ((Float) o1.getValue()).compareTo((Float) o2.getValue());
-        }
-    });
-    private Interpreter tflite;
+    private final OutputPostProcessor postProcessor = new OutputPostProcessor(0, OUTPUT_SCALE, OUTPUT_ZERO_POINT, 3);
+    private volatile ModelSlot shadow;
+    private int shadowFrames;
+    private float shadowMaxAbsDiff;
+    private byte[][] shadowProbArray = null;
+    private int shadowTop1Agreements;
+    private String tuningKey;
+    private boolean closed;
+    private volatile String inputPath;
+    private volatile Interpreter.Options tunedOptions;
+    private AutoTuner tuner;
 
     ImageClassifier(Activity activity) throws IOException {
-        this.tflite = new Interpreter(loadModelFile(activity));
-        this.labelList = loadLabelList(activity);
-        this.imgData = ByteBuffer.allocateDirect(150528);
-        this.imgData.order(ByteOrder.nativeOrder());
+        NativeLibraryLoader.preloadAsync();
+        MappedByteBuffer model = loadModelFile(activity, MODEL_PATH);
+        this.tuner = new AutoTuner(activity);
+        this.tuningKey = AutoTuner.keyFor(model);
+        this.tunedOptions = this.tuner.load(this.tuningKey);
+        this.inputPath = this.tuner.loadInputPath();
+        this.labelList = loadLabelList(activity, LABEL_PATH);
+        this.active = new ModelSlot(model, MODEL_PATH, this.tunedOptions);
+        this.imgData = BUFFER_POOL.acquire(150528);
         this.labelProbArray = (byte[][]) Array.newInstance(Byte.TYPE, new int[]{1, this.labelList.size()});
+        this.shadowProbArray = (byte[][]) Array.newInstance(Byte.TYPE, new int[]{1, this.labelList.size()});
         Log.d(TAG, "Created a Tensorflow Lite Image Classifier.");
     }
 
     /* access modifiers changed from: 0000 */
     public String classifyFrame(Bitmap bitmap) {
-        if (this.tflite == null) {
+        ModelSlot slot = acquire(true);
+        if (slot == null) {
             Log.e(TAG, "Image classifier has not been initialized; Skipped.");
             return "Uninitialized Classifier.";
         }
-        convertBitmapToByteBuffer(bitmap);
+        bitmap.getPixels(this.intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+        return classifyPixels(slot, this.intValues, null, bitmap.getWidth(), bitmap.getHeight());
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String classifyFrame(FrameRing.Frame frame) {
+        ModelSlot slot = acquire(true);
+        if (slot == null) {
+            Log.e(TAG, "Image classifier has not been initialized; Skipped.");
+            return "Uninitialized Classifier.";
+        }
+        return classifyPixels(slot, frame.pixels, frame.input, 224, 224);
+    }
+
+    static void preprocess(Image image, int rotationDegrees, FrameRing.Frame frame) {
+        Plane[] planes = image.getPlanes();
+        YuvConverter.yuv420ToArgbCenterCrop(planes[0].getBuffer(), planes[1].getBuffer(), planes[2].getBuffer(), planes[0].getRowStride(), planes[1].getRowStride(), planes[1].getPixelStride(), image.getWidth(), image.getHeight(), rotationDegrees, frame.pixels, 224);
+        packPixels(frame.pixels, frame.input);
+    }
+
+    private String classifyPixels(ModelSlot slot, int[] pixels, ByteBuffer input, int width, int height) {
+        TraceCompat.beginSection("classifyPixels");
+        try {
+            return classifyPixelsTraced(slot, pixels, input, width, height);
+        } finally {
+            slot.release();
+            TraceCompat.endSection();
+        }
+    }
+
+    private String classifyPixelsTraced(ModelSlot slot, int[] pixels, ByteBuffer input, int width, int height) {
+        long lookupStart = SystemClock.uptimeMillis();
+        if (this.frameRecorder != null) {
+            if (input == null) {
+                convertBitmapToByteBuffer();
+                input = this.imgData;
+            }
+            input.rewind();
+            recordFrame(input);
+        }
+        long hash = this.resultCache.dHash(pixels, width, height);
+        String cached = this.resultCache.get(hash, lookupStart);
+        if (cached != null) {
+            long now = SystemClock.uptimeMillis();
+            InferenceTelemetry t = this.telemetry;
+            if (t != null) {
+                t.recordInference(now, now - lookupStart, true);
+            }
+            return "cached" + cached;
+        }
+        if (input == null) {
+            convertBitmapToByteBuffer();
+            input = this.imgData;
+        }
+        input.rewind();
         long startTime = SystemClock.uptimeMillis();
-        this.tflite.run(this.imgData, this.labelProbArray);
+        TraceCompat.beginSection("runInference");
+        try {
+            slot.interpreter.run(input, this.labelProbArray);
+        } finally {
+            TraceCompat.endSection();
+        }
         long endTime = SystemClock.uptimeMillis();
+        InferenceTelemetry t = this.telemetry;
+        if (t != null) {
+            t.recordInference(endTime, endTime - startTime, false);
+        }
+        runShadow(input);
         String str = TAG;
         String str2 = "Timecost to run model inference: ";
         String valueOf = String.valueOf(Long.toString(endTime - startTime));
         Log.d(str, valueOf.length() != 0 ? str2.concat(valueOf) : new String(str2));
-        String textToShow = printTopKLabels();
+        String textToShow;
+        TraceCompat.beginSection("printTopKLabels");
+        try {
+            textToShow = printTopKLabels();
+        } finally {
+            TraceCompat.endSection();
+        }
+        this.resultCache.put(hash, textToShow, endTime);
         String l = Long.toString(endTime - startTime);
         return new StringBuilder(String.valueOf(l).length() + 2 + String.valueOf(textToShow).length()).append(l).append("ms").append(textToShow).toString();
     }
 
+    /* access modifiers changed from: 0000 */
+    public void setTelemetry(InferenceTelemetry telemetry2) {
+        this.telemetry = telemetry2;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void setFrameRecorder(FrameRecorder recorder) {
+        this.frameRecorder = recorder;
+    }
+
+    private void recordFrame(ByteBuffer input) {
+        FrameRecorder recorder = this.frameRecorder;
+        if (recorder != null) {
+            try {
+                recorder.record(input, SystemClock.elapsedRealtimeNanos());
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to record frame; recording stopped.", e);
+                this.frameRecorder = null;
+            }
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void setEmbeddingOutput(String outputName, int dim, float scale, int zeroPoint) {
+        if (scale <= 0.0f || Float.isNaN(scale) || Float.isInfinite(scale)) {
+            throw new IllegalArgumentException("Quantization scale must be a positive finite number, was " + scale);
+        }
+        ModelSlot slot = acquire(true);
+        if (slot == null) {
+            throw new IllegalStateException("Image classifier has not been initialized.");
+        }
+        try {
+            this.embeddingOutputIndex = slot.interpreter.getOutputIndex(outputName);
+            this.embeddingArray = (byte[][]) Array.newInstance(Byte.TYPE, new int[]{1, dim});
+            this.embeddingScale = scale;
+            this.embeddingZeroPoint = zeroPoint;
+            this.embeddingOutputs.clear();
+            this.embeddingOutputs.put(Integer.valueOf(0), this.labelProbArray);
+            this.embeddingOutputs.put(Integer.valueOf(this.embeddingOutputIndex), this.embeddingArray);
+        } finally {
+            slot.release();
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public boolean extractEmbedding(Bitmap bitmap, float[] out) {
+        if (this.embeddingArray == null) {
+            throw new IllegalStateException("No embedding output configured; call setEmbeddingOutput first.");
+        } else if (out.length != this.embeddingArray[0].length) {
+            throw new IllegalArgumentException("Expected an output of dimension " + this.embeddingArray[0].length + ", got " + out.length);
+        } else {
+            ModelSlot slot = acquire(true);
+            if (slot == null) {
+                return false;
+            }
+            bitmap.getPixels(this.intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+            convertBitmapToByteBuffer();
+            try {
+                slot.interpreter.runForMultipleInputsOutputs(new Object[]{this.imgData}, this.embeddingOutputs);
+            } finally {
+                slot.release();
+            }
+            byte[] embedding = this.embeddingArray[0];
+            for (int i = 0; i < embedding.length; i++) {
+                out[i] = this.embeddingScale * ((float) ((embedding[i] & 255) - this.embeddingZeroPoint));
+            }
+            return true;
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void prepareInput(Bitmap bitmap) {
+        bitmap.getPixels(this.intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+        convertBitmapToByteBuffer();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String getInputPath() {
+        return this.inputPath;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void tuneInputPath(AutoTuner.InputPathTrial trial) {
+        this.inputPath = this.tuner.tuneInputPath(trial);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public boolean isTuned() {
+        return this.tunedOptions != null;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void autoTune() {
+        if (this.tunedOptions == null) {
+            ModelSlot slot = acquire(true);
+            if (slot != null) {
+                try {
+                    ByteBuffer input = BUFFER_POOL.acquire(150528);
+                    try {
+                        publishTuned(slot, this.tuner.tune(this.tuningKey, slot.model, input, (byte[][]) Array.newInstance(Byte.TYPE, new int[]{1, this.labelList.size()})));
+                    } finally {
+                        BUFFER_POOL.release(input);
+                    }
+                } finally {
+                    slot.release();
+                }
+            }
+        }
+    }
+
+    private void publishTuned(ModelSlot tunedFrom, Interpreter.Options best) {
+        if (best == null) {
+            this.tunedOptions = new Interpreter.Options();
+            return;
+        }
+        ModelSlot tuned = new ModelSlot(tunedFrom.model, tunedFrom.version, best);
+        synchronized (this) {
+            if (this.closed || this.active != tunedFrom) {
+                tuned.retire();
+                this.tunedOptions = best;
+                return;
+            }
+            Log.d(TAG, "Switching to tuned configuration " + best);
+            this.tunedOptions = best;
+            install(tuned, false);
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public boolean swapModelAsync(InferenceExecutor executor, final File modelFile, final boolean asShadow) {
+        return executor.post(new Runnable() {
+            public void run() {
+                try {
+                    ImageClassifier.this.swapModel(ImageClassifier.mapModelFile(modelFile), modelFile.getName(), asShadow);
+                } catch (IOException | RuntimeException e) {
+                    Log.e(ImageClassifier.TAG, "Failed to swap in model " + modelFile, e);
+                }
+            }
+        });
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void swapModel(MappedByteBuffer model, String version, boolean asShadow) {
+        ModelSlot slot = new ModelSlot(model, version, this.tunedOptions);
+        try {
+            warmUp(slot);
+            install(slot, asShadow);
+            Log.d(TAG, (asShadow ? "Shadowing with model " : "Switched to model ") + version);
+        } catch (RuntimeException e) {
+            slot.retire();
+            throw e;
+        }
+    }
+
+    public synchronized void promoteShadow() {
+        ModelSlot slot = this.shadow;
+        if (slot != null) {
+            this.shadow = null;
+            install(slot, false);
+        }
+    }
+
+    public void clearShadow() {
+        install(null, true);
+    }
+
+    private synchronized void clearShadow(ModelSlot failed) {
+        if (this.shadow == failed) {
+            install(null, true);
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String getModelVersion() {
+        ModelSlot slot = this.active;
+        if (slot == null) {
+            return null;
+        }
+        return slot.version;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized float getShadowTop1Agreement() {
+        return this.shadowFrames == 0 ? 0.0f : ((float) this.shadowTop1Agreements) / ((float) this.shadowFrames);
+    }
+
     public void close() {
-        this.tflite.close();
-        this.tflite = null;
+        synchronized (this) {
+            this.closed = true;
+            install(null, false);
+            install(null, true);
+        }
+        BUFFER_POOL.release(this.imgData);
+        this.imgData = null;
     }
 
-    private List<String> loadLabelList(Activity activity) throws IOException {
+    private ModelSlot acquire(boolean primary) {
+        ModelSlot slot = primary ? this.active : this.shadow;
+        while (slot != null && !slot.acquire()) {
+            ModelSlot installed = primary ? this.active : this.shadow;
+            if (installed == slot) {
+                Log.e(TAG, "Installed model " + slot + " was already released; skipping the frame.");
+                return null;
+            }
+            slot = installed;
+        }
+        return slot;
+    }
+
+    private synchronized void install(ModelSlot slot, boolean asShadow) {
+        ModelSlot old;
+        if (asShadow) {
+            old = this.shadow;
+            this.shadow = slot;
+            this.shadowFrames = 0;
+            this.shadowTop1Agreements = 0;
+            this.shadowMaxAbsDiff = 0.0f;
+        } else {
+            old = this.active;
+            this.active = slot;
+            this.resultCache.clear();
+        }
+        if (old != null) {
+            old.retire();
+        }
+    }
+
+    private void warmUp(ModelSlot slot) {
+        ByteBuffer input = BUFFER_POOL.acquire(150528);
+        try {
+            byte[][] output = (byte[][]) Array.newInstance(Byte.TYPE, new int[]{1, this.labelList.size()});
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                input.rewind();
+                slot.interpreter.run(input, output);
+            }
+        } finally {
+            BUFFER_POOL.release(input);
+        }
+    }
+
+    private void runShadow(ByteBuffer input) {
+        ModelSlot slot = acquire(false);
+        if (slot != null) {
+            try {
+                input.rewind();
+                slot.interpreter.run(input, this.shadowProbArray);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Shadow model " + slot.version + " failed; dropping it.", e);
+                slot.release();
+                clearShadow(slot);
+                return;
+            }
+            slot.release();
+            compareShadow(slot.version);
+        }
+    }
+
+    private synchronized void compareShadow(String version) {
+        byte[] primary = this.labelProbArray[0];
+        byte[] candidate = this.shadowProbArray[0];
+        int primaryTop = 0;
+        int candidateTop = 0;
+        int maxDiff = 0;
+        for (int i = 0; i < primary.length; i++) {
+            int p = primary[i] & 255;
+            int c = candidate[i] & 255;
+            if (p > (primary[primaryTop] & 255)) {
+                primaryTop = i;
+            }
+            if (c > (candidate[candidateTop] & 255)) {
+                candidateTop = i;
+            }
+            maxDiff = Math.max(maxDiff, Math.abs(p - c));
+        }
+        this.shadowFrames++;
+        if (primaryTop == candidateTop) {
+            this.shadowTop1Agreements++;
+        }
+        this.shadowMaxAbsDiff = Math.max(this.shadowMaxAbsDiff, ((float) maxDiff) * OUTPUT_SCALE);
+        if (this.shadowFrames % SHADOW_LOG_INTERVAL == 0) {
+            Log.d(TAG, "Shadow " + version + ": top-1 agreement " + getShadowTop1Agreement() + " over " + this.shadowFrames + " frames, max abs diff " + this.shadowMaxAbsDiff);
+        }
+    }
+
+    static List<String> loadLabelList(Activity activity, String labelPath) throws IOException {
         List<String> labelList2 = new ArrayList<>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(activity.getAssets().open(LABEL_PATH)));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(activity.getAssets().open(labelPath)));
         while (true) {
             String line = reader.readLine();
             if (line != null) {
@@ -89,36 +472,24 @@ public class ImageClassifier {
         }
     }
 
-    private MappedByteBuffer loadModelFile(Activity activity) throws IOException {
-        AssetFileDescriptor fileDescriptor = activity.getAssets().openFd(MODEL_PATH);
+    static MappedByteBuffer mapModelFile(File modelFile) throws IOException {
+        FileInputStream stream = new FileInputStream(modelFile);
+        try {
+            return stream.getChannel().map(MapMode.READ_ONLY, 0, modelFile.length());
+        } finally {
+            stream.close();
+        }
+    }
+
+    static MappedByteBuffer loadModelFile(Activity activity, String modelPath) throws IOException {
+        AssetFileDescriptor fileDescriptor = activity.getAssets().openFd(modelPath);
         return new FileInputStream(fileDescriptor.getFileDescriptor()).getChannel().map(MapMode.READ_ONLY, fileDescriptor.getStartOffset(), fileDescriptor.getDeclaredLength());
     }
 
-    private void convertBitmapToByteBuffer(Bitmap bitmap) {
-        int pixel;
+    private void convertBitmapToByteBuffer() {
         if (this.imgData != null) {
-            this.imgData.rewind();
-            bitmap.getPixels(this.intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
-            int pixel2 = 0;
             long startTime = SystemClock.uptimeMillis();
-            int i = 0;
-            while (i < 224) {
-                int j = 0;
-                while (true) {
-                    pixel = pixel2;
-                    if (j >= 224) {
-                        break;
-                    }
-                    pixel2 = pixel + 1;
-                    int val = this.intValues[pixel];
-                    this.imgData.put((byte) ((val >> 16) & 255));
-                    this.imgData.put((byte) ((val >> 8) & 255));
-                    this.imgData.put((byte) (val & 255));
-                    j++;
-                }
-                i++;
-                pixel2 = pixel;
-            }
+            packPixels(this.intValues, this.imgData);
             long endTime = SystemClock.uptimeMillis();
             String str = TAG;
             String str2 = "Timecost to put values into ByteBuffer: ";
@@ -127,21 +498,22 @@ public class ImageClassifier {
         }
     }
 
-    private String printTopKLabels() {
-        for (int i = 0; i < this.labelList.size(); i++) {
-            this.sortedLabels.add(new SimpleEntry((String) this.labelList.get(i), Float.valueOf(((float) (this.labelProbArray[0][i] & 255)) / 255.0f)));
-            if (this.sortedLabels.size() > 3) {
-                this.sortedLabels.poll();
-            }
+    static void packPixels(int[] pixels, ByteBuffer out) {
+        out.rewind();
+        for (int pixel = 0; pixel < 50176; pixel++) {
+            int val = pixels[pixel];
+            out.put((byte) ((val >> 16) & 255));
+            out.put((byte) ((val >> 8) & 255));
+            out.put((byte) (val & 255));
         }
-        String textToShow = "";
-        int size = this.sortedLabels.size();
-        for (int i2 = 0; i2 < size; i2++) {
-            Entry<String, Float> label = (Entry) this.sortedLabels.poll();
-            String str = (String) label.getKey();
-            String f = Float.toString(((Float) label.getValue()).floatValue());
-            textToShow = new StringBuilder(String.valueOf(str).length() + 2 + String.valueOf(f).length() + String.valueOf(textToShow).length()).append("\n").append(str).append(":").append(f).append(textToShow).toString();
+    }
+
+    private String printTopKLabels() {
+        int size = this.postProcessor.process(this.labelProbArray[0], 0, this.labelList.size());
+        StringBuilder textToShow = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            textToShow.append("\n").append((String) this.labelList.get(this.postProcessor.getTopIndex(i))).append(":").append(this.postProcessor.getTopValue(i));
         }
-        return textToShow;
+        return textToShow.toString();
     }
 }
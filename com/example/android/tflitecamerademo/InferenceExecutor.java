@@ -0,0 +1,74 @@
+package com.example.android.tflitecamerademo;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+final class InferenceExecutor {
+    private static final String TAG = "TfLiteCameraDemo";
+    /* access modifiers changed from: private */
+    public volatile int generation;
+    /* access modifiers changed from: private */
+    public final Handler handler;
+    /* access modifiers changed from: private */
+    public final Runnable loopTask;
+    private volatile boolean shutDown;
+    private final HandlerThread thread;
+
+    private final class Loop implements Runnable {
+        private final int loopGeneration;
+
+        Loop(int loopGeneration2) {
+            this.loopGeneration = loopGeneration2;
+        }
+
+        public void run() {
+            if (this.loopGeneration == InferenceExecutor.this.generation) {
+                InferenceExecutor.this.loopTask.run();
+                if (this.loopGeneration == InferenceExecutor.this.generation) {
+                    InferenceExecutor.this.handler.post(this);
+                }
+            }
+        }
+    }
+
+    InferenceExecutor(String threadName, Runnable loopTask2) {
+        this.loopTask = loopTask2;
+        this.thread = new HandlerThread(threadName);
+        this.thread.start();
+        this.handler = new Handler(this.thread.getLooper());
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void resume() {
+        if (this.shutDown) {
+            Log.w(TAG, "Inference executor was shut down; ignoring resume.");
+            return;
+        }
+        this.generation++;
+        this.handler.post(new Loop(this.generation));
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void pause() {
+        this.generation++;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public boolean post(Runnable task) {
+        return !this.shutDown && this.handler.post(task);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void shutdown(Runnable finalTask) {
+        if (!this.shutDown) {
+            this.shutDown = true;
+            pause();
+            this.handler.removeCallbacksAndMessages(null);
+            if (finalTask != null) {
+                this.handler.post(finalTask);
+            }
+            this.thread.quitSafely();
+        }
+    }
+}
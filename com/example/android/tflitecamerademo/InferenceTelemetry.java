@@ -0,0 +1,339 @@
+package com.example.android.tflitecamerademo;
+
+import android.support.v4.util.AtomicFile;
+import android.util.Log;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+class InferenceTelemetry {
+    static final String CAUSE_NONE = "ok";
+    static final String CAUSE_OTHER = "other";
+    static final String CAUSE_THERMAL = "thermal";
+    private static final float FREQ_DROP_RATIO = 0.85f;
+    private static final String HEADER = "startMs,durationMs,frames,cachedFrames,meanLatencyMs,maxLatencyMs,meanCpuKhz,minCpuKhz,maxTempMilliC,meanBatteryMicroA,cause";
+    private static final String TAG = "TfLiteCameraDemo";
+    private static final long TEMP_RISE_MILLI_C = 5000;
+    private static final float THROUGHPUT_DROP_RATIO = 0.8f;
+    static final long UNAVAILABLE = Long.MIN_VALUE;
+    private Bucket baseline;
+    private final long bucketMillis;
+    private final ArrayDeque<Bucket> buckets = new ArrayDeque<>();
+    private Bucket current;
+    private final AtomicFile file;
+    private long lastSampleMillis = UNAVAILABLE;
+    private final int maxBuckets;
+    private String pendingCsv;
+    private final long sampleIntervalMillis;
+    private final Source source;
+    private final Object writeLock = new Object();
+    private final Runnable writeTask = new Runnable() {
+        public void run() {
+            InferenceTelemetry.this.writePending();
+        }
+    };
+    private final Executor writer;
+
+    interface Source {
+        long batteryCurrentMicroAmps();
+
+        long cpuFrequencyKhz();
+
+        long temperatureMilliCelsius();
+    }
+
+    static final class SysfsSource implements Source {
+        private static final String BATTERY_CURRENT = "/sys/class/power_supply/battery/current_now";
+        private static final String CPU_DIR = "/sys/devices/system/cpu";
+        private static final String THERMAL_DIR = "/sys/class/thermal";
+        private final File[] cpuFreqFiles;
+        private final File[] thermalFiles;
+
+        SysfsSource() {
+            this.cpuFreqFiles = listFiles(CPU_DIR, "cpu", "cpufreq/scaling_cur_freq");
+            this.thermalFiles = listFiles(THERMAL_DIR, "thermal_zone", "temp");
+        }
+
+        public long batteryCurrentMicroAmps() {
+            return readLong(new File(BATTERY_CURRENT));
+        }
+
+        public long cpuFrequencyKhz() {
+            return max(this.cpuFreqFiles);
+        }
+
+        public long temperatureMilliCelsius() {
+            return max(this.thermalFiles);
+        }
+
+        private static File[] listFiles(String dir, String prefix, String child) {
+            File[] entries = new File(dir).listFiles();
+            if (entries == null) {
+                return new File[0];
+            }
+            int n = 0;
+            File[] files = new File[entries.length];
+            for (File entry : entries) {
+                String name = entry.getName();
+                if (name.startsWith(prefix) && name.length() > prefix.length() && Character.isDigit(name.charAt(prefix.length()))) {
+                    File f = new File(entry, child);
+                    if (f.canRead()) {
+                        files[n] = f;
+                        n++;
+                    }
+                }
+            }
+            File[] result = new File[n];
+            System.arraycopy(files, 0, result, 0, n);
+            return result;
+        }
+
+        private static long max(File[] files) {
+            long best = UNAVAILABLE;
+            for (File f : files) {
+                best = Math.max(best, readLong(f));
+            }
+            return best;
+        }
+
+        private static long readLong(File f) {
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(new FileReader(f));
+                String line = reader.readLine();
+                long parseLong = line == null ? UNAVAILABLE : Long.parseLong(line.trim());
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                }
+                return parseLong;
+            } catch (IOException | NumberFormatException e2) {
+                if (reader != null) {
+                    try {
+                        reader.close();
+                    } catch (IOException e3) {
+                    }
+                }
+                return UNAVAILABLE;
+            }
+        }
+    }
+
+    static final class Bucket {
+        long batterySamples;
+        long batterySum;
+        int cachedFrames;
+        String cause = InferenceTelemetry.CAUSE_NONE;
+        long durationMillis;
+        long freqMin = Long.MAX_VALUE;
+        long freqSamples;
+        long freqSum;
+        int frames;
+        long latencyMax;
+        long latencySum;
+        final long startMillis;
+        long tempMax = InferenceTelemetry.UNAVAILABLE;
+
+        Bucket(long startMillis2) {
+            this.startMillis = startMillis2;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public int inferences() {
+            return this.frames - this.cachedFrames;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public float inferencesPerSecond() {
+            if (this.durationMillis <= 0) {
+                return 0.0f;
+            }
+            return (((float) inferences()) * 1000.0f) / ((float) this.durationMillis);
+        }
+
+        /* access modifiers changed from: 0000 */
+        public long meanLatencyMillis() {
+            if (this.frames == 0) {
+                return 0;
+            }
+            return this.latencySum / ((long) this.frames);
+        }
+
+        /* access modifiers changed from: 0000 */
+        public long meanCpuKhz() {
+            return this.freqSamples == 0 ? InferenceTelemetry.UNAVAILABLE : this.freqSum / this.freqSamples;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public long meanBatteryMicroAmps() {
+            return this.batterySamples == 0 ? InferenceTelemetry.UNAVAILABLE : this.batterySum / this.batterySamples;
+        }
+
+        public String toString() {
+            return this.startMillis + "," + this.durationMillis + "," + this.frames + "," + this.cachedFrames + "," + meanLatencyMillis() + "," + this.latencyMax + "," + orEmpty(meanCpuKhz()) + "," + orEmpty(this.freqSamples == 0 ? InferenceTelemetry.UNAVAILABLE : this.freqMin) + "," + orEmpty(this.tempMax) + "," + orEmpty(meanBatteryMicroAmps()) + "," + this.cause;
+        }
+
+        private static String orEmpty(long value) {
+            return value == InferenceTelemetry.UNAVAILABLE ? "" : Long.toString(value);
+        }
+    }
+
+    InferenceTelemetry(File file2, Source source2, Executor writer2, long bucketMillis2, long sampleIntervalMillis2, int maxBuckets2) {
+        if (bucketMillis2 <= 0 || sampleIntervalMillis2 <= 0 || maxBuckets2 <= 0) {
+            throw new IllegalArgumentException("Bucket length, sample interval and bucket count must be > 0");
+        }
+        this.file = new AtomicFile(file2);
+        this.source = source2;
+        this.writer = writer2;
+        this.bucketMillis = bucketMillis2;
+        this.sampleIntervalMillis = sampleIntervalMillis2;
+        this.maxBuckets = maxBuckets2;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void recordInference(long nowMillis, long latencyMillis, boolean cached) {
+        if (this.current == null) {
+            this.current = new Bucket(nowMillis);
+        } else if (nowMillis - this.current.startMillis >= this.bucketMillis) {
+            closeBucket(nowMillis);
+            this.current = new Bucket(nowMillis);
+        }
+        Bucket b = this.current;
+        b.frames++;
+        if (cached) {
+            b.cachedFrames++;
+        }
+        b.latencySum += latencyMillis;
+        b.latencyMax = Math.max(b.latencyMax, latencyMillis);
+        if (this.lastSampleMillis == UNAVAILABLE || nowMillis - this.lastSampleMillis >= this.sampleIntervalMillis) {
+            this.lastSampleMillis = nowMillis;
+            sample(b);
+        }
+    }
+
+    private void sample(Bucket b) {
+        long freq = this.source.cpuFrequencyKhz();
+        if (freq != UNAVAILABLE) {
+            b.freqSum += freq;
+            b.freqSamples++;
+            b.freqMin = Math.min(b.freqMin, freq);
+        }
+        long temp = this.source.temperatureMilliCelsius();
+        if (temp != UNAVAILABLE) {
+            b.tempMax = Math.max(b.tempMax, temp);
+        }
+        long current2 = this.source.batteryCurrentMicroAmps();
+        if (current2 != UNAVAILABLE) {
+            b.batterySum += current2;
+            b.batterySamples++;
+        }
+    }
+
+    private void closeBucket(long nowMillis) {
+        Bucket b = this.current;
+        b.durationMillis = Math.min(nowMillis - b.startMillis, this.bucketMillis);
+        b.cause = attribute(b);
+        if (!CAUSE_NONE.equals(b.cause)) {
+            Log.w(TAG, "Inference throughput dropped to " + b.inferencesPerSecond() + " inferences/s (" + b.cause + "): " + b);
+        }
+        this.buckets.addLast(b);
+        while (this.buckets.size() > this.maxBuckets) {
+            this.buckets.removeFirst();
+        }
+        boolean scheduled = this.pendingCsv != null;
+        this.pendingCsv = toCsv();
+        if (!scheduled) {
+            this.writer.execute(this.writeTask);
+        }
+    }
+
+    private String attribute(Bucket b) {
+        if (b.inferences() == 0) {
+            return CAUSE_NONE;
+        }
+        Bucket base = this.baseline;
+        if (base == null || b.inferencesPerSecond() > base.inferencesPerSecond()) {
+            this.baseline = b;
+            return CAUSE_NONE;
+        }
+        if (b.inferencesPerSecond() >= base.inferencesPerSecond() * THROUGHPUT_DROP_RATIO) {
+            return CAUSE_NONE;
+        }
+        long freq = b.meanCpuKhz();
+        long baseFreq = base.meanCpuKhz();
+        boolean freqDropped = freq != UNAVAILABLE && baseFreq != UNAVAILABLE && ((float) freq) < ((float) baseFreq) * FREQ_DROP_RATIO;
+        boolean hotter = b.tempMax != UNAVAILABLE && base.tempMax != UNAVAILABLE && b.tempMax - base.tempMax >= TEMP_RISE_MILLI_C;
+        if (freqDropped || hotter) {
+            return CAUSE_THERMAL;
+        }
+        return CAUSE_OTHER;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int getBucketCount() {
+        return this.buckets.size();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized Bucket getLastBucket() {
+        return (Bucket) this.buckets.peekLast();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void flush(long nowMillis) {
+        if (this.current != null && this.current.frames > 0) {
+            closeBucket(nowMillis);
+            this.current = null;
+        }
+    }
+
+    private String toCsv() {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        Iterator it = this.buckets.iterator();
+        while (it.hasNext()) {
+            sb.append(it.next()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /* access modifiers changed from: private */
+    public void writePending() {
+        String csv;
+        synchronized (this.writeLock) {
+            synchronized (this) {
+                csv = this.pendingCsv;
+                this.pendingCsv = null;
+            }
+            if (csv != null) {
+                FileOutputStream out = null;
+                try {
+                    out = this.file.startWrite();
+                    out.write(csv.getBytes(Charset.forName("UTF-8")));
+                    this.file.finishWrite(out);
+                } catch (IOException e) {
+                    Log.w(TAG, "Failed to persist inference telemetry", e);
+                    this.file.failWrite(out);
+                }
+            }
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String readSummaries() {
+        try {
+            return new String(this.file.readFully(), Charset.forName("UTF-8"));
+        } catch (FileNotFoundException e) {
+            return "";
+        } catch (IOException e2) {
+            Log.w(TAG, "Failed to read inference telemetry", e2);
+            return "";
+        }
+    }
+}
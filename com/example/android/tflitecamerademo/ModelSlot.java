@@ -0,0 +1,50 @@
+package com.example.android.tflitecamerademo;
+
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.tensorflow.lite.Interpreter;
+
+final class ModelSlot {
+    final Interpreter interpreter;
+    final MappedByteBuffer model;
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private final AtomicBoolean retired = new AtomicBoolean();
+    final String version;
+
+    ModelSlot(MappedByteBuffer model2, String version2, Interpreter.Options options) {
+        this.model = model2;
+        this.version = version2;
+        this.interpreter = new Interpreter(model2, options);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public boolean acquire() {
+        int r;
+        do {
+            r = this.refs.get();
+            if (r <= 0) {
+                return false;
+            }
+        } while (!this.refs.compareAndSet(r, r + 1));
+        return true;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void release() {
+        if (this.refs.decrementAndGet() == 0) {
+            this.interpreter.close();
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void retire() {
+        if (this.retired.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    public String toString() {
+        return "ModelSlot{" + this.version + "}";
+    }
+}
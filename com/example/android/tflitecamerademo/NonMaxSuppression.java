@@ -0,0 +1,58 @@
+package com.example.android.tflitecamerademo;
+
+final class NonMaxSuppression {
+    static final int MAX_BOXES = 100;
+
+    private NonMaxSuppression() {
+    }
+
+    static int greedy(float[][] boxes, float[] scores, float[] classes, int count, float scoreThreshold, float iouThreshold, boolean classAware, boolean[] suppressed, int[] outIndices) {
+        if (count > suppressed.length || count > boxes.length || count > scores.length) {
+            throw new IllegalArgumentException("count " + count + " exceeds the provided arrays");
+        }
+        for (int i = 0; i < count; i++) {
+            suppressed[i] = scores[i] < scoreThreshold;
+        }
+        int kept = 0;
+        while (kept < outIndices.length) {
+            int best = -1;
+            float bestScore = Float.NEGATIVE_INFINITY;
+            for (int i2 = 0; i2 < count; i2++) {
+                if (!suppressed[i2] && scores[i2] > bestScore) {
+                    best = i2;
+                    bestScore = scores[i2];
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            suppressed[best] = true;
+            outIndices[kept] = best;
+            kept++;
+            float[] b = boxes[best];
+            float area = (b[2] - b[0]) * (b[3] - b[1]);
+            for (int i3 = 0; i3 < count; i3++) {
+                if (!suppressed[i3] && ((!classAware || classes[i3] == classes[best]) && iou(b, area, boxes[i3]) > iouThreshold)) {
+                    suppressed[i3] = true;
+                }
+            }
+        }
+        return kept;
+    }
+
+    static float iou(float[] a, float areaA, float[] b) {
+        float ymin = Math.max(a[0], b[0]);
+        float xmin = Math.max(a[1], b[1]);
+        float ymax = Math.min(a[2], b[2]);
+        float xmax = Math.min(a[3], b[3]);
+        if (ymax <= ymin || xmax <= xmin) {
+            return 0.0f;
+        }
+        float intersection = (ymax - ymin) * (xmax - xmin);
+        float union = (((b[2] - b[0]) * (b[3] - b[1])) + areaA) - intersection;
+        if (union <= 0.0f) {
+            return 0.0f;
+        }
+        return intersection / union;
+    }
+}
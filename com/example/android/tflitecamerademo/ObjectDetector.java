@@ -0,0 +1,128 @@
+package com.example.android.tflitecamerademo;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.tensorflow.lite.Interpreter;
+
+public class ObjectDetector {
+    private static final float DEFAULT_IOU_THRESHOLD = 0.5f;
+    private static final float DEFAULT_SCORE_THRESHOLD = 0.5f;
+    private static final int DIM_PIXEL_SIZE = 3;
+    private static final String TAG = "TfLiteCameraDemo";
+    private final int inputSize;
+    private final List<String> labelList;
+    private final float[][][] outputBoxes = new float[1][][];
+    private final float[][] outputClasses = new float[1][];
+    private final float[] outputCount = new float[1];
+    private final float[][] outputScores = new float[1][];
+    private ByteBuffer imgData;
+    private final Object[] inputs = new Object[1];
+    private final int[] intValues;
+    private float iouThreshold = DEFAULT_IOU_THRESHOLD;
+    private final int[] keptIndices = new int[NonMaxSuppression.MAX_BOXES];
+    private int keptCount;
+    private final Map<Integer, Object> outputs = new HashMap();
+    private float scoreThreshold = DEFAULT_SCORE_THRESHOLD;
+    private final boolean[] suppressed = new boolean[NonMaxSuppression.MAX_BOXES];
+    private Interpreter tflite;
+
+    ObjectDetector(Activity activity, String modelPath, String labelPath, int inputSize2, int maxDetections, Interpreter.Options options) throws IOException {
+        if (maxDetections <= 0 || maxDetections > NonMaxSuppression.MAX_BOXES) {
+            throw new IllegalArgumentException("maxDetections must be in [1, " + NonMaxSuppression.MAX_BOXES + "]");
+        }
+        this.inputSize = inputSize2;
+        this.tflite = new Interpreter(ImageClassifier.loadModelFile(activity, modelPath), options);
+        this.labelList = ImageClassifier.loadLabelList(activity, labelPath);
+        this.imgData = ImageClassifier.BUFFER_POOL.acquire(inputSize2 * inputSize2 * 3);
+        this.intValues = new int[(inputSize2 * inputSize2)];
+        this.inputs[0] = this.imgData;
+        this.outputBoxes[0] = new float[maxDetections][4];
+        this.outputClasses[0] = new float[maxDetections];
+        this.outputScores[0] = new float[maxDetections];
+        this.outputs.put(Integer.valueOf(0), this.outputBoxes);
+        this.outputs.put(Integer.valueOf(1), this.outputClasses);
+        this.outputs.put(Integer.valueOf(2), this.outputScores);
+        this.outputs.put(Integer.valueOf(3), this.outputCount);
+        Log.d(TAG, "Created a Tensorflow Lite Object Detector.");
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void setThresholds(float scoreThreshold2, float iouThreshold2) {
+        this.scoreThreshold = scoreThreshold2;
+        this.iouThreshold = iouThreshold2;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int detect(Bitmap bitmap) {
+        if (this.tflite == null) {
+            Log.e(TAG, "Object detector has not been initialized; Skipped.");
+            this.keptCount = 0;
+            return 0;
+        }
+        bitmap.getPixels(this.intValues, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+        this.imgData.rewind();
+        for (int val : this.intValues) {
+            this.imgData.put((byte) ((val >> 16) & 255));
+            this.imgData.put((byte) ((val >> 8) & 255));
+            this.imgData.put((byte) (val & 255));
+        }
+        long startTime = SystemClock.uptimeMillis();
+        this.tflite.runForMultipleInputsOutputs(this.inputs, this.outputs);
+        int count = Math.min((int) this.outputCount[0], this.outputScores[0].length);
+        this.keptCount = NonMaxSuppression.greedy(this.outputBoxes[0], this.outputScores[0], this.outputClasses[0], Math.max(count, 0), this.scoreThreshold, this.iouThreshold, true, this.suppressed, this.keptIndices);
+        long endTime = SystemClock.uptimeMillis();
+        Log.d(TAG, "Timecost to run detection: " + (endTime - startTime));
+        return this.keptCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getDetectionCount() {
+        return this.keptCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public float[] getBox(int i) {
+        return this.outputBoxes[0][detectionIndex(i)];
+    }
+
+    /* access modifiers changed from: 0000 */
+    public float getScore(int i) {
+        return this.outputScores[0][detectionIndex(i)];
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getClassId(int i) {
+        return (int) this.outputClasses[0][detectionIndex(i)];
+    }
+
+    /* access modifiers changed from: 0000 */
+    public String getLabel(int i) {
+        int classId = getClassId(i);
+        if (classId < 0 || classId >= this.labelList.size()) {
+            return "???";
+        }
+        return (String) this.labelList.get(classId);
+    }
+
+    public void close() {
+        this.tflite.close();
+        this.tflite = null;
+        ImageClassifier.BUFFER_POOL.release(this.imgData);
+        this.imgData = null;
+        this.inputs[0] = null;
+    }
+
+    private int detectionIndex(int i) {
+        if (i >= 0 && i < this.keptCount) {
+            return this.keptIndices[i];
+        }
+        throw new ArrayIndexOutOfBoundsException(i);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.android.tflitecamerademo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+class OutputPostProcessor {
+    static final int TYPE_FLOAT32 = 2;
+    static final int TYPE_INT8 = 1;
+    static final int TYPE_UINT8 = 0;
+    private int count;
+    private final int dataType;
+    private boolean inputsAreProbabilities;
+    private final int k;
+    private float maxLogit;
+    private final float scale;
+    private boolean softmax;
+    private float sumExp;
+    private float temperature = 1.0f;
+    private float threshold = Float.NEGATIVE_INFINITY;
+    private final int[] topIndices;
+    private final float[] topValues;
+    private final int zeroPoint;
+
+    OutputPostProcessor(int dataType2, float scale2, int zeroPoint2, int k2) {
+        if (dataType2 < TYPE_UINT8 || dataType2 > TYPE_FLOAT32) {
+            throw new IllegalArgumentException("Unknown output data type " + dataType2);
+        } else if (scale2 <= 0.0f || Float.isNaN(scale2) || Float.isInfinite(scale2)) {
+            throw new IllegalArgumentException("Quantization scale must be a positive finite number, was " + scale2);
+        } else if (k2 <= 0) {
+            throw new IllegalArgumentException("k must be > 0");
+        } else {
+            this.dataType = dataType2;
+            this.scale = scale2;
+            this.zeroPoint = zeroPoint2;
+            this.k = k2;
+            this.topIndices = new int[k2];
+            this.topValues = new float[k2];
+        }
+    }
+
+    static OutputPostProcessor forFloat(int k2) {
+        return new OutputPostProcessor(TYPE_FLOAT32, 1.0f, 0, k2);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public OutputPostProcessor setSoftmax(float temperature2, boolean inputsAreProbabilities2) {
+        if (temperature2 <= 0.0f || Float.isNaN(temperature2)) {
+            throw new IllegalArgumentException("Softmax temperature must be > 0, was " + temperature2);
+        }
+        this.softmax = true;
+        this.temperature = temperature2;
+        this.inputsAreProbabilities = inputsAreProbabilities2;
+        return this;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public OutputPostProcessor setThreshold(float threshold2) {
+        this.threshold = threshold2;
+        return this;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int process(byte[] values) {
+        return process(values, 0, values.length);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int process(byte[] values, int offset, int length) {
+        if (this.dataType == TYPE_FLOAT32) {
+            throw new IllegalArgumentException("byte[] outputs require a quantized data type.");
+        }
+        begin();
+        int mask = this.dataType == TYPE_UINT8 ? 255 : -1;
+        for (int i = 0; i < length; i++) {
+            accept(i, this.scale * ((float) ((values[offset + i] & mask) - this.zeroPoint)));
+        }
+        return finish();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int process(float[] values, int offset, int length) {
+        if (this.dataType != TYPE_FLOAT32) {
+            throw new IllegalArgumentException("float[] outputs require TYPE_FLOAT32.");
+        }
+        begin();
+        for (int i = 0; i < length; i++) {
+            accept(i, values[offset + i]);
+        }
+        return finish();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int process(ByteBuffer buffer, int byteOffset, int length) {
+        begin();
+        if (this.dataType == TYPE_FLOAT32) {
+            if (buffer.order() != ByteOrder.nativeOrder()) {
+                throw new IllegalArgumentException("Invalid ByteBuffer. It should use ByteOrder.nativeOrder().");
+            }
+            for (int i = 0; i < length; i++) {
+                accept(i, buffer.getFloat((i * 4) + byteOffset));
+            }
+        } else {
+            int mask = this.dataType == TYPE_UINT8 ? 255 : -1;
+            for (int i2 = 0; i2 < length; i2++) {
+                accept(i2, this.scale * ((float) ((buffer.get(byteOffset + i2) & mask) - this.zeroPoint)));
+            }
+        }
+        return finish();
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getCount() {
+        return this.count;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public int getTopIndex(int i) {
+        if (i >= 0 && i < this.count) {
+            return this.topIndices[i];
+        }
+        throw new ArrayIndexOutOfBoundsException(i);
+    }
+
+    /* access modifiers changed from: 0000 */
+    public float getTopValue(int i) {
+        if (i >= 0 && i < this.count) {
+            return this.topValues[i];
+        }
+        throw new ArrayIndexOutOfBoundsException(i);
+    }
+
+    private void begin() {
+        this.count = 0;
+        this.maxLogit = Float.NEGATIVE_INFINITY;
+        this.sumExp = 0.0f;
+    }
+
+    private void accept(int index, float value) {
+        float score = value;
+        if (this.softmax) {
+            float logit = (this.inputsAreProbabilities ? (float) Math.log((double) value) : value) / this.temperature;
+            if (logit > this.maxLogit) {
+                this.sumExp = (this.sumExp * ((float) Math.exp((double) (this.maxLogit - logit)))) + 1.0f;
+                this.maxLogit = logit;
+            } else if (logit != Float.NEGATIVE_INFINITY) {
+                this.sumExp += (float) Math.exp((double) (logit - this.maxLogit));
+            }
+            score = logit;
+        }
+        if (this.count < this.k) {
+            insert(this.count, index, score);
+            this.count++;
+        } else if (score > this.topValues[this.k - 1]) {
+            insert(this.k - 1, index, score);
+        }
+    }
+
+    private void insert(int slot, int index, float score) {
+        int j = slot;
+        while (j > 0 && this.topValues[j - 1] < score) {
+            this.topValues[j] = this.topValues[j - 1];
+            this.topIndices[j] = this.topIndices[j - 1];
+            j--;
+        }
+        this.topValues[j] = score;
+        this.topIndices[j] = index;
+    }
+
+    private int finish() {
+        int kept = 0;
+        for (int i = 0; i < this.count; i++) {
+            float value = this.topValues[i];
+            if (this.softmax) {
+                value = this.sumExp > 0.0f ? ((float) Math.exp((double) (value - this.maxLogit))) / this.sumExp : 0.0f;
+            }
+            if (value >= this.threshold) {
+                this.topValues[kept] = value;
+                this.topIndices[kept] = this.topIndices[i];
+                kept++;
+            }
+        }
+        this.count = kept;
+        return kept;
+    }
+}
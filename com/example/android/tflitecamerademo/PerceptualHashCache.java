@@ -0,0 +1,143 @@
+package com.example.android.tflitecamerademo;
+
+import java.util.Arrays;
+
+class PerceptualHashCache {
+    private static final int HASH_HEIGHT = 8;
+    private static final int HASH_WIDTH = 9;
+    private final int[] cellCounts = new int[72];
+    private final int[] cellSums = new int[72];
+    private long clock;
+    private final long[] hashes;
+    private int hitCount;
+    private final int[] hitsSinceInsert;
+    private final long[] insertedAt;
+    private final long[] lastUsed;
+    private final int maxDistance;
+    private final int maxHitsPerEntry;
+    private int missCount;
+    private final String[] results;
+    private int size;
+    private final long ttlMillis;
+
+    PerceptualHashCache(int capacity, int maxDistance2, long ttlMillis2, int maxHitsPerEntry2) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        } else if (maxDistance2 < 0 || maxDistance2 > 64) {
+            throw new IllegalArgumentException("maxDistance must be in [0, 64]");
+        } else if (ttlMillis2 <= 0 || maxHitsPerEntry2 <= 0) {
+            throw new IllegalArgumentException("ttlMillis and maxHitsPerEntry must be > 0");
+        } else {
+            this.hashes = new long[capacity];
+            this.lastUsed = new long[capacity];
+            this.insertedAt = new long[capacity];
+            this.hitsSinceInsert = new int[capacity];
+            this.results = new String[capacity];
+            this.maxDistance = maxDistance2;
+            this.ttlMillis = ttlMillis2;
+            this.maxHitsPerEntry = maxHitsPerEntry2;
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public long dHash(int[] argb, int width, int height) {
+        int[] cells = this.cellSums;
+        int[] counts = this.cellCounts;
+        Arrays.fill(cells, 0);
+        Arrays.fill(counts, 0);
+        for (int y = 0; y < height; y++) {
+            int row = ((y * HASH_HEIGHT) / height) * HASH_WIDTH;
+            int base = y * width;
+            for (int x = 0; x < width; x++) {
+                int val = argb[base + x];
+                int cell = row + ((x * HASH_WIDTH) / width);
+                cells[cell] += (((val >> 16) & 255) * 77) + (((val >> 8) & 255) * 150) + ((val & 255) * 29);
+                counts[cell]++;
+            }
+        }
+        long hash = 0;
+        for (int r = 0; r < HASH_HEIGHT; r++) {
+            for (int c = 0; c < HASH_WIDTH - 1; c++) {
+                int left = (r * HASH_WIDTH) + c;
+                hash <<= 1;
+                if (((long) cells[left]) * ((long) counts[left + 1]) > ((long) cells[left + 1]) * ((long) counts[left])) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized String get(long hash, long nowMillis) {
+        int best = -1;
+        int bestDistance = this.maxDistance + 1;
+        for (int i = 0; i < this.size; i++) {
+            if (this.results[i] == null) {
+                continue;
+            }
+            if (nowMillis - this.insertedAt[i] >= this.ttlMillis || this.hitsSinceInsert[i] >= this.maxHitsPerEntry) {
+                this.results[i] = null;
+                this.lastUsed[i] = 0;
+                continue;
+            }
+            int d = Long.bitCount(this.hashes[i] ^ hash);
+            if (d < bestDistance) {
+                best = i;
+                bestDistance = d;
+                if (d == 0) {
+                    break;
+                }
+            }
+        }
+        if (best < 0) {
+            this.missCount++;
+            return null;
+        }
+        this.hitCount++;
+        this.hitsSinceInsert[best]++;
+        this.clock++;
+        this.lastUsed[best] = this.clock;
+        return this.results[best];
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void put(long hash, String result, long nowMillis) {
+        int slot;
+        if (this.size < this.hashes.length) {
+            slot = this.size;
+            this.size++;
+        } else {
+            slot = 0;
+            for (int i = 1; i < this.size; i++) {
+                if (this.lastUsed[i] < this.lastUsed[slot]) {
+                    slot = i;
+                }
+            }
+        }
+        this.hashes[slot] = hash;
+        this.results[slot] = result;
+        this.insertedAt[slot] = nowMillis;
+        this.hitsSinceInsert[slot] = 0;
+        this.clock++;
+        this.lastUsed[slot] = this.clock;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.results[i] = null;
+        }
+        this.size = 0;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int hitCount() {
+        return this.hitCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int missCount() {
+        return this.missCount;
+    }
+}
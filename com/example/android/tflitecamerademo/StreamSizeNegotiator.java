@@ -0,0 +1,80 @@
+package com.example.android.tflitecamerademo;
+
+import android.util.Log;
+import android.util.Size;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+final class StreamSizeNegotiator {
+    private static final float ASPECT_TOLERANCE = 0.02f;
+    private static final String TAG = "TfLiteCameraDemo";
+
+    static class CompareSizesByArea implements Comparator<Size> {
+        CompareSizesByArea() {
+        }
+
+        public int compare(Size lhs, Size rhs) {
+            return Long.signum((((long) lhs.getWidth()) * ((long) lhs.getHeight())) - (((long) rhs.getWidth()) * ((long) rhs.getHeight())));
+        }
+    }
+
+    private StreamSizeNegotiator() {
+    }
+
+    static Size choosePreviewSize(Size[] choices, int textureViewWidth, int textureViewHeight, int maxWidth, int maxHeight, Size aspectRatio) {
+        List<Size> bigEnough = new ArrayList<>();
+        List<Size> notBigEnough = new ArrayList<>();
+        int w = aspectRatio.getWidth();
+        int h = aspectRatio.getHeight();
+        for (Size option : choices) {
+            if (option.getWidth() <= maxWidth && option.getHeight() <= maxHeight && option.getHeight() == (option.getWidth() * h) / w) {
+                if (option.getWidth() < textureViewWidth || option.getHeight() < textureViewHeight) {
+                    notBigEnough.add(option);
+                } else {
+                    bigEnough.add(option);
+                }
+            }
+        }
+        if (bigEnough.size() > 0) {
+            return (Size) Collections.min(bigEnough, new CompareSizesByArea());
+        }
+        if (notBigEnough.size() > 0) {
+            return (Size) Collections.max(notBigEnough, new CompareSizesByArea());
+        }
+        Log.e(TAG, "Couldn't find any suitable preview size");
+        return choices[0];
+    }
+
+    static Size chooseInferenceSize(Size[] choices, int modelWidth, int modelHeight, Size previewSize) {
+        if (choices == null || choices.length == 0) {
+            return null;
+        }
+        int modelSide = Math.max(modelWidth, modelHeight);
+        CompareSizesByArea byArea = new CompareSizesByArea();
+        Size best = null;
+        boolean bestMatchesPreview = false;
+        for (Size option : choices) {
+            if (Math.min(option.getWidth(), option.getHeight()) >= modelSide) {
+                boolean matchesPreview = previewSize == null || sameAspect(option, previewSize);
+                if (best == null || ((matchesPreview && !bestMatchesPreview) || (matchesPreview == bestMatchesPreview && byArea.compare(option, best) < 0))) {
+                    best = option;
+                    bestMatchesPreview = matchesPreview;
+                }
+            }
+        }
+        if (best == null) {
+            best = (Size) Collections.max(Arrays.asList(choices), new CompareSizesByArea());
+            Log.w(TAG, "No stream covers the model input; using " + best.getWidth() + "x" + best.getHeight());
+        }
+        return best;
+    }
+
+    private static boolean sameAspect(Size a, Size b) {
+        float ra = ((float) Math.max(a.getWidth(), a.getHeight())) / ((float) Math.min(a.getWidth(), a.getHeight()));
+        float rb = ((float) Math.max(b.getWidth(), b.getHeight())) / ((float) Math.min(b.getWidth(), b.getHeight()));
+        return Math.abs(ra - rb) <= ASPECT_TOLERANCE * rb;
+    }
+}
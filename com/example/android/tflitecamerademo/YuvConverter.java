@@ -0,0 +1,62 @@
+package com.example.android.tflitecamerademo;
+
+import java.nio.ByteBuffer;
+
+final class YuvConverter {
+    private YuvConverter() {
+    }
+
+    static void yuv420ToArgbCenterCrop(ByteBuffer yPlane, ByteBuffer uPlane, ByteBuffer vPlane, int yRowStride, int uvRowStride, int uvPixelStride, int width, int height, int rotationDegrees, int[] out, int outSize) {
+        int side = Math.min(width, height);
+        int x0 = (width - side) / 2;
+        int y0 = (height - side) / 2;
+        int i = 0;
+        for (int oy = 0; oy < outSize; oy++) {
+            int v = (oy * side) / outSize;
+            for (int ox = 0; ox < outSize; ox++) {
+                int sx;
+                int sy;
+                int u = (ox * side) / outSize;
+                switch (rotationDegrees) {
+                    case 90:
+                        sx = x0 + v;
+                        sy = ((y0 + side) - 1) - u;
+                        break;
+                    case 180:
+                        sx = ((x0 + side) - 1) - u;
+                        sy = ((y0 + side) - 1) - v;
+                        break;
+                    case 270:
+                        sx = ((x0 + side) - 1) - v;
+                        sy = y0 + u;
+                        break;
+                    default:
+                        sx = x0 + u;
+                        sy = y0 + v;
+                        break;
+                }
+                int yValue = (yPlane.get((sy * yRowStride) + sx) & 255) - 16;
+                int uvIndex = ((sy >> 1) * uvRowStride) + ((sx >> 1) * uvPixelStride);
+                int cb = (uPlane.get(uvIndex) & 255) - 128;
+                int cr = (vPlane.get(uvIndex) & 255) - 128;
+                int y1192 = Math.max(yValue, 0) * 1192;
+                int r = clamp((cr * 1634) + y1192);
+                int g = clamp((y1192 - (cr * 833)) - (cb * 400));
+                int b = clamp((cb * 2066) + y1192);
+                int i2 = i + 1;
+                out[i] = ((-16777216 | ((r << 6) & 16711680)) | ((g >> 2) & 65280)) | ((b >> 10) & 255);
+                i = i2;
+            }
+        }
+    }
+
+    private static int clamp(int value) {
+        if (value < 0) {
+            return 0;
+        }
+        if (value > 262143) {
+            return 262143;
+        }
+        return value;
+    }
+}
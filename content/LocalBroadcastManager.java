@@ -12,33 +12,125 @@ import android.support.v4.provider.FontsContractCompat.FontRequestCallback;
 import android.util.Log;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class LocalBroadcastManager {
     private static final boolean DEBUG = false;
+    private static final ReceiverRecord[] EMPTY_RECEIVERS = new ReceiverRecord[0];
+    private static final int MAX_RESOLVE_CACHE_SIZE = 64;
     static final int MSG_EXEC_PENDING_BROADCASTS = 1;
     private static final String TAG = "LocalBroadcastManager";
     private static LocalBroadcastManager mInstance;
     private static final Object mLock = new Object();
     private final HashMap<String, ArrayList<ReceiverRecord>> mActions = new HashMap<>();
     private final Context mAppContext;
+    private final ConcurrentHashMap<CoalesceKey, CoalescedBroadcast> mCoalesced = new ConcurrentHashMap<>();
+    private final AtomicBoolean mDispatchScheduled = new AtomicBoolean();
     private final Handler mHandler;
-    private final ArrayList<BroadcastRecord> mPendingBroadcasts = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Object> mPendingBroadcasts = new ConcurrentLinkedQueue<>();
     private final HashMap<BroadcastReceiver, ArrayList<ReceiverRecord>> mReceivers = new HashMap<>();
+    private final ConcurrentHashMap<ResolveKey, ReceiverRecord[]> mResolveCache = new ConcurrentHashMap<>();
 
     private static final class BroadcastRecord {
         final Intent intent;
-        final ArrayList<ReceiverRecord> receivers;
+        final ReceiverRecord[] receivers;
 
-        BroadcastRecord(Intent _intent, ArrayList<ReceiverRecord> _receivers) {
+        BroadcastRecord(Intent _intent, ReceiverRecord[] _receivers) {
             this.intent = _intent;
             this.receivers = _receivers;
         }
     }
 
+    private static final class CoalescedBroadcast extends AtomicReference<BroadcastRecord> {
+        final CoalesceKey key;
+
+        CoalescedBroadcast(CoalesceKey _key, BroadcastRecord record) {
+            super(record);
+            this.key = _key;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public boolean replace(BroadcastRecord record) {
+            BroadcastRecord current;
+            do {
+                current = (BroadcastRecord) get();
+                if (current == null) {
+                    return false;
+                }
+            } while (!compareAndSet(current, record));
+            return true;
+        }
+    }
+
+    private static final class CoalesceKey {
+        private final int hash;
+        final Intent intent;
+
+        CoalesceKey(Intent _intent) {
+            this.intent = _intent;
+            this.hash = _intent.filterHashCode();
+        }
+
+        public boolean equals(Object o) {
+            return (o instanceof CoalesceKey) && this.intent.filterEquals(((CoalesceKey) o).intent);
+        }
+
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class ResolveKey {
+        final String action;
+        final Set<String> categories;
+        private final int hash;
+        final String type;
+
+        ResolveKey(String _action, String _type, Set<String> _categories) {
+            int i = 0;
+            this.action = _action;
+            this.type = _type;
+            this.categories = _categories;
+            int hashCode = (((_action == null ? 0 : _action.hashCode()) * 31) + (_type == null ? 0 : _type.hashCode())) * 31;
+            if (_categories != null) {
+                i = _categories.hashCode();
+            }
+            this.hash = hashCode + i;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public ResolveKey copy() {
+            return new ResolveKey(this.action, this.type, this.categories == null ? null : new HashSet(this.categories));
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof ResolveKey)) {
+                return false;
+            }
+            ResolveKey other = (ResolveKey) o;
+            if (this.hash != other.hash || !equal(this.action, other.action) || !equal(this.type, other.type) || !equal(this.categories, other.categories)) {
+                return false;
+            }
+            return true;
+        }
+
+        public int hashCode() {
+            return this.hash;
+        }
+
+        private static boolean equal(Object a, Object b) {
+            return a == b || (a != null && a.equals(b));
+        }
+    }
+
     private static final class ReceiverRecord {
         boolean broadcasting;
-        boolean dead;
+        volatile boolean dead;
         final IntentFilter filter;
         final BroadcastReceiver receiver;
 
@@ -79,6 +171,7 @@ public final class LocalBroadcastManager {
             public void handleMessage(Message msg) {
                 switch (msg.what) {
                     case 1:
+                        LocalBroadcastManager.this.mDispatchScheduled.set(false);
                         LocalBroadcastManager.this.executePendingBroadcasts();
                         return;
                     default:
@@ -107,6 +200,7 @@ public final class LocalBroadcastManager {
                 }
                 entries.add(entry);
             }
+            this.mResolveCache.clear();
         }
     }
 
@@ -134,137 +228,193 @@ public final class LocalBroadcastManager {
                         }
                     }
                 }
+                this.mResolveCache.clear();
             }
         }
     }
 
-    /* JADX WARNING: Code restructure failed: missing block: B:64:?, code lost:
-        return false;
-     */
     public boolean sendBroadcast(@NonNull Intent intent) {
+        ReceiverRecord[] receivers = resolve(intent);
+        if (receivers.length == 0) {
+            return false;
+        }
+        enqueue(new BroadcastRecord(intent, receivers));
+        return true;
+    }
+
+    public boolean sendBroadcastCoalesced(@NonNull Intent intent) {
+        ReceiverRecord[] receivers = resolve(intent);
+        if (receivers.length == 0) {
+            return false;
+        }
+        BroadcastRecord record = new BroadcastRecord(intent, receivers);
+        CoalesceKey key = new CoalesceKey(intent);
+        while (true) {
+            CoalescedBroadcast pending = (CoalescedBroadcast) this.mCoalesced.get(key);
+            if (pending == null) {
+                CoalescedBroadcast pending2 = new CoalescedBroadcast(key, record);
+                if (this.mCoalesced.putIfAbsent(key, pending2) == null) {
+                    enqueue(pending2);
+                    return true;
+                }
+            } else if (pending.replace(record)) {
+                return true;
+            } else {
+                this.mCoalesced.remove(key, pending);
+            }
+        }
+    }
+
+    public void sendBroadcastSync(@NonNull Intent intent) {
+        if (sendBroadcast(intent)) {
+            executePendingBroadcasts();
+        }
+    }
+
+    private void enqueue(Object pending) {
+        this.mPendingBroadcasts.offer(pending);
+        if (this.mDispatchScheduled.compareAndSet(false, true)) {
+            this.mHandler.sendEmptyMessage(1);
+        }
+    }
+
+    private ReceiverRecord[] resolve(Intent intent) {
+        String type = intent.resolveTypeIfNeeded(this.mAppContext.getContentResolver());
+        Uri data = intent.getData();
+        if ((intent.getFlags() & 8) != 0 || data != null) {
+            return match(intent, type, data);
+        }
+        ResolveKey key = new ResolveKey(intent.getAction(), type, intent.getCategories());
+        ReceiverRecord[] receivers = (ReceiverRecord[]) this.mResolveCache.get(key);
+        if (receivers != null) {
+            return receivers;
+        }
+        synchronized (this.mReceivers) {
+            ReceiverRecord[] receivers2 = (ReceiverRecord[]) this.mResolveCache.get(key);
+            if (receivers2 != null) {
+                return receivers2;
+            }
+            ReceiverRecord[] receivers3 = match(intent, type, null);
+            if (this.mResolveCache.size() >= MAX_RESOLVE_CACHE_SIZE) {
+                this.mResolveCache.clear();
+            }
+            this.mResolveCache.put(key.copy(), receivers3);
+            return receivers3;
+        }
+    }
+
+    private ReceiverRecord[] match(Intent intent, String type, Uri data) {
         String reason;
         synchronized (this.mReceivers) {
             String action = intent.getAction();
-            String type = intent.resolveTypeIfNeeded(this.mAppContext.getContentResolver());
-            Uri data = intent.getData();
             String scheme = intent.getScheme();
             Set<String> categories = intent.getCategories();
             boolean debug = (intent.getFlags() & 8) != 0;
             if (debug) {
                 Log.v(TAG, "Resolving type " + type + " scheme " + scheme + " of intent " + intent);
             }
-            ArrayList<ReceiverRecord> entries = (ArrayList) this.mActions.get(intent.getAction());
-            if (entries != null) {
+            ArrayList<ReceiverRecord> entries = (ArrayList) this.mActions.get(action);
+            if (entries == null) {
+                return EMPTY_RECEIVERS;
+            }
+            if (debug) {
+                Log.v(TAG, "Action list: " + entries);
+            }
+            ArrayList<ReceiverRecord> receivers = null;
+            for (int i = 0; i < entries.size(); i++) {
+                ReceiverRecord receiver = (ReceiverRecord) entries.get(i);
                 if (debug) {
-                    Log.v(TAG, "Action list: " + entries);
+                    Log.v(TAG, "Matching against filter " + receiver.filter);
                 }
-                ArrayList<ReceiverRecord> receivers = null;
-                for (int i = 0; i < entries.size(); i++) {
-                    ReceiverRecord receiver = (ReceiverRecord) entries.get(i);
-                    if (debug) {
-                        Log.v(TAG, "Matching against filter " + receiver.filter);
-                    }
-                    if (!receiver.broadcasting) {
-                        int match = receiver.filter.match(action, type, scheme, data, categories, TAG);
-                        if (match >= 0) {
-                            if (debug) {
-                                Log.v(TAG, "  Filter matched!  match=0x" + Integer.toHexString(match));
-                            }
-                            if (receivers == null) {
-                                receivers = new ArrayList<>();
-                            }
-                            receivers.add(receiver);
-                            receiver.broadcasting = true;
-                        } else if (debug) {
-                            switch (match) {
-                                case FontRequestCallback.FAIL_REASON_SECURITY_VIOLATION /*-4*/:
-                                    reason = "category";
-                                    break;
-                                case FontRequestCallback.FAIL_REASON_FONT_LOAD_ERROR /*-3*/:
-                                    reason = "action";
-                                    break;
-                                case -2:
-                                    reason = "data";
-                                    break;
-                                case -1:
-                                    reason = "type";
-                                    break;
-                                default:
-                                    reason = "unknown reason";
-                                    break;
-                            }
-                            Log.v(TAG, "  Filter did not match: " + reason);
-                        } else {
-                            continue;
+                if (!receiver.broadcasting) {
+                    int match = receiver.filter.match(action, type, scheme, data, categories, TAG);
+                    if (match >= 0) {
+                        if (debug) {
+                            Log.v(TAG, "  Filter matched!  match=0x" + Integer.toHexString(match));
+                        }
+                        if (receivers == null) {
+                            receivers = new ArrayList<>();
                         }
+                        receivers.add(receiver);
+                        receiver.broadcasting = true;
                     } else if (debug) {
-                        Log.v(TAG, "  Filter's target already added");
+                        switch (match) {
+                            case FontRequestCallback.FAIL_REASON_SECURITY_VIOLATION /*-4*/:
+                                reason = "category";
+                                break;
+                            case FontRequestCallback.FAIL_REASON_FONT_LOAD_ERROR /*-3*/:
+                                reason = "action";
+                                break;
+                            case -2:
+                                reason = "data";
+                                break;
+                            case -1:
+                                reason = "type";
+                                break;
+                            default:
+                                reason = "unknown reason";
+                                break;
+                        }
+                        Log.v(TAG, "  Filter did not match: " + reason);
                     }
+                } else if (debug) {
+                    Log.v(TAG, "  Filter's target already added");
                 }
-                if (receivers != null) {
-                    for (int i2 = 0; i2 < receivers.size(); i2++) {
-                        ((ReceiverRecord) receivers.get(i2)).broadcasting = false;
-                    }
-                    this.mPendingBroadcasts.add(new BroadcastRecord(intent, receivers));
-                    if (!this.mHandler.hasMessages(1)) {
-                        this.mHandler.sendEmptyMessage(1);
+            }
+            if (receivers == null) {
+                return EMPTY_RECEIVERS;
+            }
+            for (int i2 = 0; i2 < receivers.size(); i2++) {
+                ((ReceiverRecord) receivers.get(i2)).broadcasting = false;
+            }
+            ReceiverRecord[] receiverRecordArr = (ReceiverRecord[]) receivers.toArray(new ReceiverRecord[receivers.size()]);
+            return receiverRecordArr;
+        }
+    }
+
+    public void executePendingBroadcasts() {
+        ArrayList<BroadcastRecord> batch = null;
+        while (true) {
+            while (true) {
+                Object pending = this.mPendingBroadcasts.poll();
+                if (pending == null) {
+                    break;
+                }
+                BroadcastRecord record = take(pending);
+                if (record != null) {
+                    if (batch == null) {
+                        batch = new ArrayList<>();
                     }
-                    return true;
+                    batch.add(record);
                 }
             }
+            if (batch != null && !batch.isEmpty()) {
+                dispatch(batch);
+                batch.clear();
+            } else {
+                return;
+            }
         }
     }
 
-    public void sendBroadcastSync(@NonNull Intent intent) {
-        if (sendBroadcast(intent)) {
-            executePendingBroadcasts();
+    private BroadcastRecord take(Object pending) {
+        if (!(pending instanceof CoalescedBroadcast)) {
+            return (BroadcastRecord) pending;
         }
+        CoalescedBroadcast coalesced = (CoalescedBroadcast) pending;
+        this.mCoalesced.remove(coalesced.key, coalesced);
+        return (BroadcastRecord) coalesced.getAndSet(null);
     }
 
-    /* access modifiers changed from: private */
-    /* JADX WARNING: Code restructure failed: missing block: B:11:0x001c, code lost:
-        if (r3 >= r2.length) goto L_0x0000;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:12:0x001e, code lost:
-        r1 = r2[r3];
-        r5 = r1.receivers.size();
-        r4 = 0;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:13:0x0027, code lost:
-        if (r4 >= r5) goto L_0x0044;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:14:0x0029, code lost:
-        r6 = (android.support.v4.content.LocalBroadcastManager.ReceiverRecord) r1.receivers.get(r4);
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:15:0x0033, code lost:
-        if (r6.dead != false) goto L_0x003e;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:16:0x0035, code lost:
-        r6.receiver.onReceive(r10.mAppContext, r1.intent);
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:17:0x003e, code lost:
-        r4 = r4 + 1;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:22:0x0044, code lost:
-        r3 = r3 + 1;
-     */
-    /* JADX WARNING: Code restructure failed: missing block: B:9:0x001a, code lost:
-        r3 = 0;
-     */
-    public void executePendingBroadcasts() {
-        while (true) {
-            synchronized (this.mReceivers) {
-                int N = this.mPendingBroadcasts.size();
-                if (N > 0) {
-                    BroadcastRecord[] brs = new BroadcastRecord[N];
-                    this.mPendingBroadcasts.toArray(brs);
-                    this.mPendingBroadcasts.clear();
-                } else {
-                    return;
+    private void dispatch(ArrayList<BroadcastRecord> batch) {
+        int N = batch.size();
+        for (int i = 0; i < N; i++) {
+            BroadcastRecord br = (BroadcastRecord) batch.get(i);
+            for (ReceiverRecord rec : br.receivers) {
+                if (!rec.dead) {
+                    rec.receiver.onReceive(this.mAppContext, br.intent);
                 }
             }
         }
-        while (true) {
-        }
     }
 }
@@ -0,0 +1,178 @@
+package org.tensorflow.lite;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class DirectBufferPool {
+    private static final int MIN_CLASS_SIZE = 1024;
+    private int allocatedBytes;
+    private int idleBytes;
+    private final Map<Integer, ArrayDeque<ByteBuffer>> idle = new HashMap();
+    private final Object lock = new Object();
+    private final int maxTotalBytes;
+    private final IdentityHashMap<ByteBuffer, Throwable> outstanding = new IdentityHashMap<>();
+    private final boolean trackLeaks;
+
+    public DirectBufferPool(int maxTotalBytes2) {
+        this(maxTotalBytes2, false);
+    }
+
+    public DirectBufferPool(int maxTotalBytes2, boolean trackLeaks2) {
+        if (maxTotalBytes2 <= 0) {
+            throw new IllegalArgumentException("The max total bytes must be > 0");
+        }
+        this.maxTotalBytes = maxTotalBytes2;
+        this.trackLeaks = trackLeaks2;
+    }
+
+    public ByteBuffer acquire(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid buffer capacity %d (should be > 0)", new Object[]{Integer.valueOf(capacity)}));
+        }
+        int classSize = classSizeOf(capacity);
+        if (classSize > this.maxTotalBytes) {
+            throw new IllegalArgumentException(String.format("Buffer of %d bytes exceeds the pool limit of %d bytes", new Object[]{Integer.valueOf(capacity), Integer.valueOf(this.maxTotalBytes)}));
+        }
+        ByteBuffer buffer = null;
+        synchronized (this.lock) {
+            ArrayDeque<ByteBuffer> queue = (ArrayDeque) this.idle.get(Integer.valueOf(classSize));
+            if (queue != null && !queue.isEmpty()) {
+                buffer = (ByteBuffer) queue.pollLast();
+                this.idleBytes -= classSize;
+            } else {
+                if (this.allocatedBytes + classSize > this.maxTotalBytes) {
+                    evictIdleLocked((this.allocatedBytes + classSize) - this.maxTotalBytes);
+                }
+                if (this.allocatedBytes + classSize > this.maxTotalBytes) {
+                    throw new IllegalStateException(String.format("Direct buffer pool exhausted: %d of %d bytes leased, %d more requested", new Object[]{Integer.valueOf(this.allocatedBytes - this.idleBytes), Integer.valueOf(this.maxTotalBytes), Integer.valueOf(classSize)}));
+                }
+                this.allocatedBytes += classSize;
+            }
+        }
+        if (buffer == null) {
+            try {
+                buffer = ByteBuffer.allocateDirect(classSize);
+            } catch (OutOfMemoryError e) {
+                synchronized (this.lock) {
+                    this.allocatedBytes -= classSize;
+                }
+                throw e;
+            }
+        }
+        buffer.clear();
+        buffer.limit(capacity);
+        buffer.order(ByteOrder.nativeOrder());
+        synchronized (this.lock) {
+            this.outstanding.put(buffer, this.trackLeaks ? new Throwable("Buffer of " + capacity + " bytes acquired here") : null);
+        }
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Cannot release a null buffer.");
+        }
+        synchronized (this.lock) {
+            if (!this.outstanding.containsKey(buffer)) {
+                throw new IllegalStateException("Buffer was not acquired from this pool or was already released.");
+            }
+            this.outstanding.remove(buffer);
+            int classSize = buffer.capacity();
+            ArrayDeque<ByteBuffer> queue = (ArrayDeque) this.idle.get(Integer.valueOf(classSize));
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                this.idle.put(Integer.valueOf(classSize), queue);
+            }
+            queue.addLast(buffer);
+            this.idleBytes += classSize;
+        }
+    }
+
+    public void trim() {
+        synchronized (this.lock) {
+            evictIdleLocked(this.idleBytes);
+        }
+    }
+
+    public int getMaxTotalBytes() {
+        return this.maxTotalBytes;
+    }
+
+    public int getAllocatedBytes() {
+        int i;
+        synchronized (this.lock) {
+            i = this.allocatedBytes;
+        }
+        return i;
+    }
+
+    public int getIdleBytes() {
+        int i;
+        synchronized (this.lock) {
+            i = this.idleBytes;
+        }
+        return i;
+    }
+
+    public int getOutstandingCount() {
+        int size;
+        synchronized (this.lock) {
+            size = this.outstanding.size();
+        }
+        return size;
+    }
+
+    public List<Throwable> getLeakSites() {
+        List<Throwable> sites = new ArrayList<>();
+        synchronized (this.lock) {
+            for (Throwable site : this.outstanding.values()) {
+                if (site != null) {
+                    sites.add(site);
+                }
+            }
+        }
+        return sites;
+    }
+
+    public int reportLeaks(PrintStream out) {
+        int count = getOutstandingCount();
+        if (count > 0) {
+            out.println("DirectBufferPool: " + count + " buffer(s) were never released.");
+            for (Throwable site : getLeakSites()) {
+                site.printStackTrace(out);
+            }
+        }
+        return count;
+    }
+
+    private void evictIdleLocked(int bytesNeeded) {
+        int freed = 0;
+        for (ArrayDeque<ByteBuffer> queue : this.idle.values()) {
+            while (freed < bytesNeeded && !queue.isEmpty()) {
+                int classSize = ((ByteBuffer) queue.pollFirst()).capacity();
+                this.idleBytes -= classSize;
+                this.allocatedBytes -= classSize;
+                freed += classSize;
+            }
+            if (freed >= bytesNeeded) {
+                return;
+            }
+        }
+    }
+
+    static int classSizeOf(int capacity) {
+        if (capacity <= MIN_CLASS_SIZE) {
+            return MIN_CLASS_SIZE;
+        }
+        int step = Integer.highestOneBit(capacity - 1) / 4;
+        long rounded = ((((long) capacity) + ((long) step)) - 1) / ((long) step);
+        return (int) Math.min(rounded * ((long) step), 2147483647L);
+    }
+}
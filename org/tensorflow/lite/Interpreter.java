@@ -9,14 +9,46 @@ import javax.validation.constraints.NotNull;
 public final class Interpreter implements AutoCloseable {
     NativeInterpreterWrapper wrapper;
 
+    public static class Options {
+        boolean useNNAPI;
+
+        public Options() {
+        }
+
+        public Options(@NotNull Options other) {
+            this.useNNAPI = other.useNNAPI;
+        }
+
+        public Options setUseNNAPI(boolean useNNAPI2) {
+            this.useNNAPI = useNNAPI2;
+            return this;
+        }
+
+        public boolean getUseNNAPI() {
+            return this.useNNAPI;
+        }
+
+        public String toString() {
+            return "Options{useNNAPI=" + this.useNNAPI + "}";
+        }
+    }
+
     public Interpreter(@NotNull File modelFile) {
+        this(modelFile, (Options) null);
+    }
+
+    public Interpreter(@NotNull File modelFile, Options options) {
         if (modelFile != null) {
-            this.wrapper = new NativeInterpreterWrapper(modelFile.getAbsolutePath());
+            this.wrapper = new NativeInterpreterWrapper(modelFile.getAbsolutePath(), options);
         }
     }
 
     public Interpreter(@NotNull MappedByteBuffer mappedByteBuffer) {
-        this.wrapper = new NativeInterpreterWrapper(mappedByteBuffer);
+        this(mappedByteBuffer, (Options) null);
+    }
+
+    public Interpreter(@NotNull MappedByteBuffer mappedByteBuffer, Options options) {
+        this.wrapper = new NativeInterpreterWrapper(mappedByteBuffer, options);
     }
 
     public void run(@NotNull Object input, @NotNull Object output) {
@@ -64,6 +96,13 @@ public final class Interpreter implements AutoCloseable {
         throw new IllegalStateException("The Interpreter has already been closed.");
     }
 
+    public Options getOptions() {
+        if (this.wrapper != null) {
+            return new Options(this.wrapper.getOptions());
+        }
+        throw new IllegalStateException("The Interpreter has already been closed.");
+    }
+
     public void close() {
         this.wrapper.close();
         this.wrapper = null;
@@ -0,0 +1,99 @@
+package org.tensorflow.lite;
+
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+import javax.validation.constraints.NotNull;
+
+public final class InterpreterBenchmark {
+    private static final int DEFAULT_TIMED_RUNS = 20;
+    private static final int DEFAULT_WARMUP_RUNS = 3;
+
+    public static final class Result {
+        private final int bestIndex;
+        private final Interpreter.Options[] candidates;
+        private final long[] meanNanos;
+
+        Result(Interpreter.Options[] candidates2, long[] meanNanos2, int bestIndex2) {
+            this.candidates = candidates2;
+            this.meanNanos = meanNanos2;
+            this.bestIndex = bestIndex2;
+        }
+
+        public Interpreter.Options getBestOptions() {
+            return new Interpreter.Options(this.candidates[this.bestIndex]);
+        }
+
+        public long getBestMeanNanos() {
+            return this.meanNanos[this.bestIndex];
+        }
+
+        public int getCandidateCount() {
+            return this.candidates.length;
+        }
+
+        public Interpreter.Options getCandidate(int idx) {
+            return new Interpreter.Options(this.candidates[idx]);
+        }
+
+        public long getMeanNanos(int idx) {
+            return this.meanNanos[idx];
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("InterpreterBenchmark.Result{");
+            for (int i = 0; i < this.candidates.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(this.candidates[i]).append("=").append(this.meanNanos[i] / 1000).append("us");
+            }
+            return sb.append(", best=").append(this.candidates[this.bestIndex]).append("}").toString();
+        }
+    }
+
+    private InterpreterBenchmark() {
+    }
+
+    public static Result compare(@NotNull MappedByteBuffer model, @NotNull Interpreter.Options[] candidates, @NotNull Object input, @NotNull Object output) {
+        return compare(model, candidates, input, output, DEFAULT_WARMUP_RUNS, DEFAULT_TIMED_RUNS);
+    }
+
+    public static Result compare(@NotNull MappedByteBuffer model, @NotNull Interpreter.Options[] candidates, @NotNull Object input, @NotNull Object output, int warmupRuns, int timedRuns) {
+        if (candidates == null || candidates.length == 0) {
+            throw new IllegalArgumentException("At least one candidate must be given.");
+        } else if (warmupRuns < 0 || timedRuns <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid run counts (warmup %d, timed %d)", new Object[]{Integer.valueOf(warmupRuns), Integer.valueOf(timedRuns)}));
+        } else {
+            Interpreter.Options[] copies = new Interpreter.Options[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                copies[i] = candidates[i] == null ? new Interpreter.Options() : new Interpreter.Options(candidates[i]);
+            }
+            long[] meanNanos = new long[copies.length];
+            Arrays.fill(meanNanos, Long.MAX_VALUE);
+            int best = 0;
+            for (int i2 = 0; i2 < copies.length; i2++) {
+                meanNanos[i2] = timeCandidate(model, copies[i2], input, output, warmupRuns, timedRuns);
+                if (meanNanos[i2] < meanNanos[best]) {
+                    best = i2;
+                }
+            }
+            return new Result(copies, meanNanos, best);
+        }
+    }
+
+    private static long timeCandidate(MappedByteBuffer model, Interpreter.Options options, Object input, Object output, int warmupRuns, int timedRuns) {
+        Interpreter interpreter = new Interpreter(model, options);
+        try {
+            for (int i = 0; i < warmupRuns; i++) {
+                interpreter.run(input, output);
+            }
+            long start = System.nanoTime();
+            for (int i2 = 0; i2 < timedRuns; i2++) {
+                interpreter.run(input, output);
+            }
+            return (System.nanoTime() - start) / ((long) timedRuns);
+        } finally {
+            interpreter.close();
+        }
+    }
+}
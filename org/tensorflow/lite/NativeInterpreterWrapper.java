@@ -15,6 +15,7 @@ final class NativeInterpreterWrapper implements AutoCloseable {
     private long interpreterHandle;
     private MappedByteBuffer modelByteBuffer;
     private long modelHandle;
+    private Interpreter.Options options;
     private Map<String, Integer> outputsIndexes;
 
     private static native long createErrorReporter(int i);
@@ -40,16 +41,40 @@ final class NativeInterpreterWrapper implements AutoCloseable {
     private static native void useNNAPI(long j, boolean z);
 
     NativeInterpreterWrapper(String modelPath) {
+        this(modelPath, (Interpreter.Options) null);
+    }
+
+    NativeInterpreterWrapper(String modelPath, Interpreter.Options options2) {
+        this.options = copyOf(options2);
+        NativeLibraryLoader.ensureLoaded();
         this.errorHandle = createErrorReporter(512);
         this.modelHandle = createModel(modelPath, this.errorHandle);
         this.interpreterHandle = createInterpreter(this.modelHandle);
+        applyOptions();
     }
 
     NativeInterpreterWrapper(MappedByteBuffer mappedByteBuffer) {
+        this(mappedByteBuffer, (Interpreter.Options) null);
+    }
+
+    NativeInterpreterWrapper(MappedByteBuffer mappedByteBuffer, Interpreter.Options options2) {
+        this.options = copyOf(options2);
+        NativeLibraryLoader.ensureLoaded();
         this.modelByteBuffer = mappedByteBuffer;
         this.errorHandle = createErrorReporter(512);
         this.modelHandle = createModelWithBuffer(this.modelByteBuffer, this.errorHandle);
         this.interpreterHandle = createInterpreter(this.modelHandle);
+        applyOptions();
+    }
+
+    private static Interpreter.Options copyOf(Interpreter.Options options2) {
+        return options2 == null ? new Interpreter.Options() : new Interpreter.Options(options2);
+    }
+
+    private void applyOptions() {
+        if (this.options.useNNAPI) {
+            useNNAPI(this.interpreterHandle, true);
+        }
     }
 
     public void close() {
@@ -107,6 +132,12 @@ final class NativeInterpreterWrapper implements AutoCloseable {
     /* access modifiers changed from: 0000 */
     public void setUseNNAPI(boolean useNNAPI) {
         useNNAPI(this.interpreterHandle, useNNAPI);
+        this.options.useNNAPI = useNNAPI;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Interpreter.Options getOptions() {
+        return this.options;
     }
 
     /* access modifiers changed from: 0000 */
@@ -0,0 +1,118 @@
+package org.tensorflow.lite;
+
+import java.util.Locale;
+
+public final class NativeLibraryLoader {
+    private static final String LIBNAME = "tensorflowlite_jni";
+    private static final String PRELOAD_THREAD_NAME = "TfLiteNativePreload";
+    private static final Object lock = new Object();
+    private static volatile Result result;
+
+    public static final class Result {
+        private final String abi;
+        private final long durationNanos;
+        private final UnsatisfiedLinkError error;
+
+        Result(String abi2, long durationNanos2, UnsatisfiedLinkError error2) {
+            this.abi = abi2;
+            this.durationNanos = durationNanos2;
+            this.error = error2;
+        }
+
+        public boolean isLoaded() {
+            return this.error == null;
+        }
+
+        public String getAbi() {
+            return this.abi;
+        }
+
+        public long getDurationNanos() {
+            return this.durationNanos;
+        }
+
+        public UnsatisfiedLinkError getError() {
+            return this.error;
+        }
+
+        public String toString() {
+            return "NativeLibraryLoader.Result{loaded=" + isLoaded() + ", abi=" + this.abi + ", durationMs=" + (this.durationNanos / 1000000) + (this.error == null ? "" : ", error=" + this.error.getMessage()) + "}";
+        }
+    }
+
+    private NativeLibraryLoader() {
+    }
+
+    public static Result load() {
+        Result r = result;
+        if (r != null) {
+            return r;
+        }
+        synchronized (lock) {
+            if (result == null) {
+                result = doLoad();
+            }
+            r = result;
+        }
+        return r;
+    }
+
+    public static Result getResultIfLoaded() {
+        return result;
+    }
+
+    public static Thread preloadAsync() {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                NativeLibraryLoader.load();
+            }
+        }, PRELOAD_THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    public static boolean isAvailable() {
+        return load().isLoaded();
+    }
+
+    static void ensureLoaded() {
+        Result r = load();
+        if (!r.isLoaded()) {
+            throw new IllegalStateException("TensorFlowLite native library is not available for ABI " + r.getAbi() + "; no interpreter backend can be created.", r.getError());
+        }
+    }
+
+    private static Result doLoad() {
+        String abi = abiOf(System.getProperty("os.arch"));
+        long start = System.nanoTime();
+        try {
+            System.loadLibrary(LIBNAME);
+            return new Result(abi, System.nanoTime() - start, null);
+        } catch (UnsatisfiedLinkError e) {
+            long duration = System.nanoTime() - start;
+            System.err.println("TensorFlowLite: failed to load native library " + LIBNAME + " for ABI " + abi + ": " + e.getMessage());
+            return new Result(abi, duration, e);
+        }
+    }
+
+    static String abiOf(String arch) {
+        if (arch == null) {
+            return "unknown";
+        }
+        String a = arch.toLowerCase(Locale.US);
+        if (a.equals("aarch64") || a.equals("arm64")) {
+            return "arm64-v8a";
+        }
+        if (a.startsWith("arm")) {
+            return "armeabi-v7a";
+        }
+        if (a.equals("x86_64") || a.equals("amd64")) {
+            return "x86_64";
+        }
+        if (a.equals("x86") || (a.length() == 4 && a.charAt(0) == 'i' && a.endsWith("86"))) {
+            return "x86";
+        }
+        return a;
+    }
+}
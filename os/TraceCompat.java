@@ -2,18 +2,127 @@ package android.support.v4.os;
 
 import android.os.Build.VERSION;
 import android.os.Trace;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
 
 public final class TraceCompat {
+    private static final int DEFAULT_SPANS_PER_THREAD = 4096;
+    private static volatile boolean sInProcessEnabled;
+
+    public static final class SectionStats implements Comparable<SectionStats> {
+        private final long[] mBuckets;
+        private final long mCount;
+        private final long mMaxNanos;
+        private final String mName;
+        private final long mTotalNanos;
+
+        SectionStats(String name, long count, long totalNanos, long maxNanos, long[] buckets) {
+            this.mName = name;
+            this.mCount = count;
+            this.mTotalNanos = totalNanos;
+            this.mMaxNanos = maxNanos;
+            this.mBuckets = buckets;
+        }
+
+        public String getName() {
+            return this.mName;
+        }
+
+        public long getCount() {
+            return this.mCount;
+        }
+
+        public long getTotalNanos() {
+            return this.mTotalNanos;
+        }
+
+        public long getMeanNanos() {
+            if (this.mCount == 0) {
+                return 0;
+            }
+            return this.mTotalNanos / this.mCount;
+        }
+
+        public long getMaxNanos() {
+            return this.mMaxNanos;
+        }
+
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0.0d || percentile > 100.0d) {
+                throw new IllegalArgumentException("percentile must be in [0, 100], was " + percentile);
+            } else if (this.mCount == 0) {
+                return 0;
+            } else {
+                long rank = Math.max(1, (long) Math.ceil((((double) this.mCount) * percentile) / 100.0d));
+                long seen = 0;
+                for (int i = 0; i < this.mBuckets.length; i++) {
+                    seen += this.mBuckets[i];
+                    if (seen >= rank) {
+                        return Math.min(TraceRecorder.bucketUpperBound(i), this.mMaxNanos);
+                    }
+                }
+                return this.mMaxNanos;
+            }
+        }
+
+        public int compareTo(SectionStats other) {
+            if (this.mTotalNanos != other.mTotalNanos) {
+                return this.mTotalNanos > other.mTotalNanos ? -1 : 1;
+            }
+            return this.mName.compareTo(other.mName);
+        }
+
+        public String toString() {
+            return "SectionStats{" + this.mName + " count=" + this.mCount + " meanUs=" + (getMeanNanos() / 1000) + " p50Us=" + (getPercentileNanos(50.0d) / 1000) + " p99Us=" + (getPercentileNanos(99.0d) / 1000) + " maxUs=" + (this.mMaxNanos / 1000) + "}";
+        }
+    }
+
     public static void beginSection(String sectionName) {
         if (VERSION.SDK_INT >= 18) {
             Trace.beginSection(sectionName);
         }
+        if (sInProcessEnabled) {
+            TraceRecorder.buffer().begin(sectionName, System.nanoTime());
+        }
     }
 
     public static void endSection() {
         if (VERSION.SDK_INT >= 18) {
             Trace.endSection();
         }
+        if (sInProcessEnabled) {
+            TraceRecorder.buffer().end(System.nanoTime());
+        }
+    }
+
+    public static void enableInProcessTracing() {
+        enableInProcessTracing(DEFAULT_SPANS_PER_THREAD);
+    }
+
+    public static void enableInProcessTracing(int spansPerThread) {
+        TraceRecorder.enable(spansPerThread);
+        sInProcessEnabled = true;
+    }
+
+    public static void disableInProcessTracing() {
+        sInProcessEnabled = false;
+    }
+
+    public static boolean isInProcessTracingEnabled() {
+        return sInProcessEnabled;
+    }
+
+    public static void resetInProcessTracing() {
+        TraceRecorder.reset();
+    }
+
+    public static List<SectionStats> getSectionStats() {
+        return TraceRecorder.snapshot();
+    }
+
+    public static void dumpChromeTrace(Writer out) throws IOException {
+        TraceRecorder.writeChromeTrace(out);
     }
 
     private TraceCompat() {
@@ -0,0 +1,308 @@
+package android.support.v4.os;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class TraceRecorder {
+    static final int BUCKET_COUNT = 248;
+    private static final int MAX_DEAD_BUFFERS = 8;
+    private static final int MAX_DEPTH = 64;
+    private static final ThreadLocal<SpanBuffer> sBuffer = new ThreadLocal<>();
+    private static final List<SpanBuffer> sBuffers = new ArrayList();
+    static volatile int sCapacity;
+    static volatile int sGeneration;
+    private static final ConcurrentHashMap<String, Histogram> sHistograms = new ConcurrentHashMap<>();
+
+    static final class Histogram {
+        final AtomicLongArray buckets = new AtomicLongArray(TraceRecorder.BUCKET_COUNT);
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+        final String name;
+        final AtomicLong totalNanos = new AtomicLong();
+
+        Histogram(String name2) {
+            this.name = name2;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public void record(long nanos) {
+            this.buckets.incrementAndGet(TraceRecorder.bucketOf(nanos));
+            this.count.incrementAndGet();
+            this.totalNanos.addAndGet(nanos);
+            long max = this.maxNanos.get();
+            while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+                max = this.maxNanos.get();
+            }
+        }
+    }
+
+    static final class SpanBuffer {
+        final long[] durations;
+        final int generation;
+        private final HashMap<String, Histogram> histograms = new HashMap<>();
+        final int mask;
+        final String[] names;
+        private int openDepth;
+        private final String[] openNames = new String[TraceRecorder.MAX_DEPTH];
+        private final long[] openStarts = new long[TraceRecorder.MAX_DEPTH];
+        final long[] starts;
+        private final WeakReference<Thread> thread;
+        final long threadId;
+        final String threadName;
+        volatile long written;
+
+        SpanBuffer(int capacity, int generation2) {
+            this.names = new String[capacity];
+            this.starts = new long[capacity];
+            this.durations = new long[capacity];
+            this.mask = capacity - 1;
+            this.generation = generation2;
+            Thread current = Thread.currentThread();
+            this.thread = new WeakReference<>(current);
+            this.threadId = current.getId();
+            this.threadName = current.getName();
+        }
+
+        /* access modifiers changed from: 0000 */
+        public boolean isThreadAlive() {
+            Thread t = (Thread) this.thread.get();
+            return t != null && t.isAlive();
+        }
+
+        /* access modifiers changed from: 0000 */
+        public void begin(String name, long now) {
+            if (this.openDepth < TraceRecorder.MAX_DEPTH) {
+                this.openNames[this.openDepth] = name;
+                this.openStarts[this.openDepth] = now;
+            }
+            this.openDepth++;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public void end(long now) {
+            if (this.openDepth != 0) {
+                this.openDepth--;
+                if (this.openDepth < TraceRecorder.MAX_DEPTH) {
+                    String name = this.openNames[this.openDepth];
+                    long start = this.openStarts[this.openDepth];
+                    this.openNames[this.openDepth] = null;
+                    long written2 = this.written;
+                    int slot = (int) (((long) this.mask) & written2);
+                    this.names[slot] = name;
+                    this.starts[slot] = start;
+                    this.durations[slot] = now - start;
+                    this.written = 1 + written2;
+                    histogram(name).record(now - start);
+                }
+            }
+        }
+
+        private Histogram histogram(String name) {
+            Histogram h = (Histogram) this.histograms.get(name);
+            if (h == null) {
+                h = (Histogram) TraceRecorder.sHistograms.get(name);
+                if (h == null) {
+                    Histogram created = new Histogram(name);
+                    h = (Histogram) TraceRecorder.sHistograms.putIfAbsent(name, created);
+                    if (h == null) {
+                        h = created;
+                    }
+                }
+                this.histograms.put(name, h);
+            }
+            return h;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public int copySpans(String[] outNames, long[] outStarts, long[] outDurations) {
+            long end = this.written;
+            long first = Math.max(0, end - ((long) this.names.length));
+            int n = (int) (end - first);
+            for (int i = 0; i < n; i++) {
+                int slot = (int) ((((long) i) + first) & ((long) this.mask));
+                outNames[i] = this.names[slot];
+                outStarts[i] = this.starts[slot];
+                outDurations[i] = this.durations[slot];
+            }
+            long overwritten = ((this.written + 1) - ((long) this.names.length)) - first;
+            if (overwritten <= 0) {
+                return n;
+            }
+            if (overwritten >= ((long) n)) {
+                return 0;
+            }
+            int kept = n - ((int) overwritten);
+            System.arraycopy(outNames, (int) overwritten, outNames, 0, kept);
+            System.arraycopy(outStarts, (int) overwritten, outStarts, 0, kept);
+            System.arraycopy(outDurations, (int) overwritten, outDurations, 0, kept);
+            return kept;
+        }
+    }
+
+    private TraceRecorder() {
+    }
+
+    static void enable(int spansPerThread) {
+        if (spansPerThread <= 0) {
+            throw new IllegalArgumentException("spansPerThread must be > 0");
+        }
+        synchronized (sBuffers) {
+            sCapacity = Integer.highestOneBit(spansPerThread - 1) << 1;
+            if (sCapacity == 0) {
+                sCapacity = 1;
+            }
+            reset();
+        }
+    }
+
+    static void reset() {
+        synchronized (sBuffers) {
+            sGeneration++;
+            sBuffers.clear();
+            sHistograms.clear();
+        }
+    }
+
+    static SpanBuffer buffer() {
+        SpanBuffer buffer = (SpanBuffer) sBuffer.get();
+        int generation = sGeneration;
+        if (buffer != null && buffer.generation == generation) {
+            return buffer;
+        }
+        SpanBuffer buffer2 = new SpanBuffer(sCapacity, generation);
+        synchronized (sBuffers) {
+            if (generation == sGeneration) {
+                pruneDeadBuffersLocked(MAX_DEAD_BUFFERS);
+                sBuffers.add(buffer2);
+            }
+        }
+        sBuffer.set(buffer2);
+        return buffer2;
+    }
+
+    private static void pruneDeadBuffersLocked(int keep) {
+        int dead = 0;
+        for (int i = sBuffers.size() - 1; i >= 0; i--) {
+            if (!((SpanBuffer) sBuffers.get(i)).isThreadAlive()) {
+                dead++;
+                if (dead > keep) {
+                    sBuffers.remove(i);
+                }
+            }
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < 4) {
+            return (int) Math.max(0, nanos);
+        }
+        int bit = 63 - Long.numberOfLeadingZeros(nanos);
+        return ((bit - 1) * 4) + ((int) ((nanos >>> (bit - 2)) & 3));
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < 4) {
+            return (long) bucket;
+        }
+        int bit = (bucket / 4) + 1;
+        return ((((long) ((bucket % 4) + 4)) + 1) << (bit - 2)) - 1;
+    }
+
+    static List<TraceCompat.SectionStats> snapshot() {
+        List<TraceCompat.SectionStats> stats = new ArrayList<>();
+        for (Histogram h : sHistograms.values()) {
+            long[] buckets = new long[BUCKET_COUNT];
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = h.buckets.get(i);
+                count += buckets[i];
+            }
+            stats.add(new TraceCompat.SectionStats(h.name, count, h.totalNanos.get(), h.maxNanos.get(), buckets));
+        }
+        Collections.sort(stats);
+        return stats;
+    }
+
+    static void writeChromeTrace(Writer out) throws IOException {
+        SpanBuffer[] buffers;
+        synchronized (sBuffers) {
+            buffers = (SpanBuffer[]) sBuffers.toArray(new SpanBuffer[sBuffers.size()]);
+        }
+        int capacity = 0;
+        for (SpanBuffer buffer : buffers) {
+            capacity = Math.max(capacity, buffer.names.length);
+        }
+        String[] names = new String[capacity];
+        long[] starts = new long[capacity];
+        long[] durations = new long[capacity];
+        out.write("{\"traceEvents\":[");
+        boolean first = true;
+        for (SpanBuffer buffer2 : buffers) {
+            if (!first) {
+                out.write(44);
+            }
+            first = false;
+            out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":0,\"tid\":");
+            out.write(Long.toString(buffer2.threadId));
+            out.write(",\"args\":{\"name\":");
+            writeString(out, buffer2.threadName);
+            out.write("}}");
+            int n = buffer2.copySpans(names, starts, durations);
+            for (int i = 0; i < n; i++) {
+                out.write(",{\"name\":");
+                writeString(out, names[i]);
+                out.write(",\"ph\":\"X\",\"pid\":0,\"tid\":");
+                out.write(Long.toString(buffer2.threadId));
+                out.write(",\"ts\":");
+                writeMicros(out, starts[i]);
+                out.write(",\"dur\":");
+                writeMicros(out, durations[i]);
+                out.write(125);
+                names[i] = null;
+            }
+        }
+        out.write("],\"displayTimeUnit\":\"ns\"}");
+        out.flush();
+        synchronized (sBuffers) {
+            for (SpanBuffer buffer3 : buffers) {
+                if (!buffer3.isThreadAlive()) {
+                    sBuffers.remove(buffer3);
+                }
+            }
+        }
+    }
+
+    private static void writeMicros(Writer out, long nanos) throws IOException {
+        out.write(Long.toString(nanos / 1000));
+        long frac = nanos % 1000;
+        out.write(46);
+        out.write((int) ((frac / 100) + 48));
+        out.write((int) (((frac / 10) % 10) + 48));
+        out.write((int) ((frac % 10) + 48));
+    }
+
+    private static void writeString(Writer out, String s) throws IOException {
+        out.write(34);
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c == '\"' || c == '\\') {
+                out.write(92);
+                out.write(c);
+            } else if (c < ' ') {
+                out.write(String.format("\\u%04x", new Object[]{Integer.valueOf(c)}));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write(34);
+    }
+}
@@ -15,6 +15,11 @@ public class ArrayMap<K, V> extends SimpleArrayMap<K, V> implements Map<K, V> {
         super(capacity);
     }
 
+    public ArrayMap(int capacity, int hashThreshold) {
+        super(capacity);
+        setHashThreshold(hashThreshold);
+    }
+
     public ArrayMap(SimpleArrayMap map) {
         super(map);
     }
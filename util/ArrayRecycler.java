@@ -0,0 +1,126 @@
+package android.support.v4.util;
+
+import java.util.Arrays;
+
+final class ArrayRecycler {
+    private static final int BASE_SIZE = 4;
+    private static final int GLOBAL_CACHE_SIZE = 10;
+    private static final int LOCAL_CACHE_SIZE = 4;
+    static final ArrayRecycler MAP = new ArrayRecycler(2);
+    static final ArrayRecycler SET = new ArrayRecycler(1);
+    private int dropCount;
+    private final Object[][] globalCaches = new Object[2][];
+    private final int[] globalCacheSizes = new int[2];
+    private int globalHitCount;
+    private int globalLockCount;
+    private final ThreadLocal<Local> local = new ThreadLocal<Local>() {
+        /* access modifiers changed from: protected */
+        public Local initialValue() {
+            return new Local();
+        }
+    };
+    private int missCount;
+    private final int slotsPerEntry;
+
+    static final class Local {
+        final Object[][][] caches = new Object[2][LOCAL_CACHE_SIZE][];
+        final int[] sizes = new int[2];
+
+        Local() {
+        }
+    }
+
+    private ArrayRecycler(int slotsPerEntry2) {
+        this.slotsPerEntry = slotsPerEntry2;
+    }
+
+    private static int classOf(int size) {
+        if (size == BASE_SIZE) {
+            return 0;
+        }
+        return size == 8 ? 1 : -1;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public Object[] acquire(int size) {
+        int sizeClass = classOf(size);
+        if (sizeClass < 0) {
+            return null;
+        }
+        Local l = (Local) this.local.get();
+        int n = l.sizes[sizeClass];
+        if (n > 0) {
+            int n2 = n - 1;
+            Object[][] cache = l.caches[sizeClass];
+            Object[] array = cache[n2];
+            cache[n2] = null;
+            l.sizes[sizeClass] = n2;
+            return array;
+        }
+        synchronized (this) {
+            this.globalLockCount++;
+            Object[] array2 = this.globalCaches[sizeClass];
+            if (array2 == null) {
+                this.missCount++;
+                return null;
+            }
+            this.globalCaches[sizeClass] = (Object[]) array2[0];
+            int[] iArr = this.globalCacheSizes;
+            iArr[sizeClass] = iArr[sizeClass] - 1;
+            this.globalHitCount++;
+            return array2;
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public void release(int[] hashes, Object[] array, int size) {
+        int sizeClass = classOf(hashes.length);
+        if (sizeClass >= 0) {
+            Arrays.fill(array, 2, Math.max(this.slotsPerEntry * size, 2), null);
+            array[1] = hashes;
+            Local l = (Local) this.local.get();
+            int n = l.sizes[sizeClass];
+            if (n < LOCAL_CACHE_SIZE) {
+                array[0] = null;
+                l.caches[sizeClass][n] = array;
+                l.sizes[sizeClass] = n + 1;
+                return;
+            }
+            synchronized (this) {
+                this.globalLockCount++;
+                if (this.globalCacheSizes[sizeClass] < GLOBAL_CACHE_SIZE) {
+                    array[0] = this.globalCaches[sizeClass];
+                    this.globalCaches[sizeClass] = array;
+                    int[] iArr = this.globalCacheSizes;
+                    iArr[sizeClass] = iArr[sizeClass] + 1;
+                } else {
+                    this.dropCount++;
+                }
+            }
+        }
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int allocationCount() {
+        return this.missCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int globalHitCount() {
+        return this.globalHitCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int globalLockCount() {
+        return this.globalLockCount;
+    }
+
+    /* access modifiers changed from: 0000 */
+    public synchronized int dropCount() {
+        return this.dropCount;
+    }
+
+    public synchronized String toString() {
+        return "ArrayRecycler{allocations=" + this.missCount + ", globalHits=" + this.globalHitCount + ", globalLocks=" + this.globalLockCount + ", drops=" + this.dropCount + "}";
+    }
+}
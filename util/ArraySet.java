@@ -10,15 +10,10 @@ import java.util.Set;
 
 public final class ArraySet<E> implements Collection<E>, Set<E> {
     private static final int BASE_SIZE = 4;
-    private static final int CACHE_SIZE = 10;
     private static final boolean DEBUG = false;
     private static final int[] INT = new int[0];
     private static final Object[] OBJECT = new Object[0];
     private static final String TAG = "ArraySet";
-    static Object[] sBaseCache;
-    static int sBaseCacheSize;
-    static Object[] sTwiceBaseCache;
-    static int sTwiceBaseCacheSize;
     Object[] mArray;
     MapCollections<E, E> mCollections;
     int[] mHashes;
@@ -78,63 +73,20 @@ public final class ArraySet<E> implements Collection<E>, Set<E> {
     }
 
     private void allocArrays(int size) {
-        if (size == 8) {
-            synchronized (ArraySet.class) {
-                if (sTwiceBaseCache != null) {
-                    Object[] array = sTwiceBaseCache;
-                    this.mArray = array;
-                    sTwiceBaseCache = (Object[]) array[0];
-                    this.mHashes = (int[]) array[1];
-                    array[1] = null;
-                    array[0] = null;
-                    sTwiceBaseCacheSize--;
-                    return;
-                }
-            }
-        } else if (size == 4) {
-            synchronized (ArraySet.class) {
-                if (sBaseCache != null) {
-                    Object[] array2 = sBaseCache;
-                    this.mArray = array2;
-                    sBaseCache = (Object[]) array2[0];
-                    this.mHashes = (int[]) array2[1];
-                    array2[1] = null;
-                    array2[0] = null;
-                    sBaseCacheSize--;
-                    return;
-                }
-            }
+        Object[] array = ArrayRecycler.SET.acquire(size);
+        if (array != null) {
+            this.mArray = array;
+            this.mHashes = (int[]) array[1];
+            array[1] = null;
+            array[0] = null;
+            return;
         }
         this.mHashes = new int[size];
         this.mArray = new Object[size];
     }
 
     private static void freeArrays(int[] hashes, Object[] array, int size) {
-        if (hashes.length == 8) {
-            synchronized (ArraySet.class) {
-                if (sTwiceBaseCacheSize < 10) {
-                    array[0] = sTwiceBaseCache;
-                    array[1] = hashes;
-                    for (int i = size - 1; i >= 2; i--) {
-                        array[i] = null;
-                    }
-                    sTwiceBaseCache = array;
-                    sTwiceBaseCacheSize++;
-                }
-            }
-        } else if (hashes.length == 4) {
-            synchronized (ArraySet.class) {
-                if (sBaseCacheSize < 10) {
-                    array[0] = sBaseCache;
-                    array[1] = hashes;
-                    for (int i2 = size - 1; i2 >= 2; i2--) {
-                        array[i2] = null;
-                    }
-                    sBaseCache = array;
-                    sBaseCacheSize++;
-                }
-            }
-        }
+        ArrayRecycler.SET.release(hashes, array, size);
     }
 
     public ArraySet() {
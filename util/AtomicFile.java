@@ -2,16 +2,39 @@ package android.support.v4.util;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.os.Handler;
 import android.util.Log;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 
 public class AtomicFile {
     private final File mBackupName;
     private final File mBaseName;
+    private Handler mCommitHandler;
+    /* access modifiers changed from: private */
+    public boolean mCommitScheduled;
+    private final Runnable mDelayedCommit = new Runnable() {
+        public void run() {
+            synchronized (AtomicFile.this) {
+                AtomicFile.this.mCommitScheduled = false;
+            }
+            try {
+                AtomicFile.this.commitGroup();
+            } catch (IOException e) {
+                Log.w("AtomicFile", "Delayed group commit failed:", e);
+            }
+        }
+    };
+    private long mGroupCommitDelayMillis;
+    private int mGroupCommitSize = 1;
+    private byte[] mPending;
+    private int mPendingCount;
 
     public AtomicFile(@NonNull File baseName) {
         this.mBaseName = baseName;
@@ -24,6 +47,11 @@ public class AtomicFile {
     }
 
     public void delete() {
+        synchronized (this) {
+            this.mPending = null;
+            this.mPendingCount = 0;
+            cancelDelayedCommit();
+        }
         this.mBaseName.delete();
         this.mBackupName.delete();
     }
@@ -76,8 +104,75 @@ public class AtomicFile {
         }
     }
 
+    public synchronized void setGroupCommitSize(int writesPerCommit) {
+        if (writesPerCommit < 1) {
+            throw new IllegalArgumentException("writesPerCommit must be >= 1");
+        }
+        this.mGroupCommitSize = writesPerCommit;
+    }
+
+    public synchronized void setGroupCommitDelay(long maxDelayMillis, @Nullable Handler handler) {
+        if (handler != null && maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("maxDelayMillis must be > 0");
+        }
+        cancelDelayedCommit();
+        this.mCommitHandler = handler;
+        this.mGroupCommitDelayMillis = maxDelayMillis;
+        if (handler != null && this.mPending != null) {
+            this.mCommitScheduled = handler.postDelayed(this.mDelayedCommit, maxDelayMillis);
+        }
+    }
+
+    public synchronized boolean writeGrouped(@NonNull byte[] contents) throws IOException {
+        this.mPending = contents;
+        this.mPendingCount++;
+        if (this.mPendingCount < this.mGroupCommitSize) {
+            if (!this.mCommitScheduled && this.mCommitHandler != null) {
+                this.mCommitScheduled = this.mCommitHandler.postDelayed(this.mDelayedCommit, this.mGroupCommitDelayMillis);
+            }
+            return false;
+        }
+        commitGroup();
+        return true;
+    }
+
+    public synchronized void commitGroup() throws IOException {
+        byte[] pending = this.mPending;
+        if (pending != null) {
+            FileOutputStream str = startWrite();
+            try {
+                str.write(pending);
+                finishWrite(str);
+                this.mPending = null;
+                this.mPendingCount = 0;
+                cancelDelayedCommit();
+            } catch (IOException e) {
+                failWrite(str);
+                throw e;
+            }
+        }
+    }
+
+    private void cancelDelayedCommit() {
+        if (this.mCommitScheduled) {
+            this.mCommitHandler.removeCallbacks(this.mDelayedCommit);
+            this.mCommitScheduled = false;
+        }
+    }
+
+    public synchronized boolean hasPendingWrites() {
+        return this.mPending != null;
+    }
+
     @NonNull
     public FileInputStream openRead() throws FileNotFoundException {
+        try {
+            commitGroup();
+        } catch (IOException e) {
+            FileNotFoundException failure = new FileNotFoundException("Couldn't commit grouped writes to " + this.mBaseName);
+            failure.initCause(e);
+            throw failure;
+        }
         if (this.mBackupName.exists()) {
             this.mBaseName.delete();
             this.mBackupName.renameTo(this.mBaseName);
@@ -85,12 +180,29 @@ public class AtomicFile {
         return new FileInputStream(this.mBaseName);
     }
 
+    @NonNull
+    public FileChannel openReadChannel() throws FileNotFoundException {
+        return openRead().getChannel();
+    }
+
+    @NonNull
+    public MappedByteBuffer openMapped() throws IOException {
+        FileInputStream stream = openRead();
+        try {
+            FileChannel channel = stream.getChannel();
+            return channel.map(MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            stream.close();
+        }
+    }
+
     @NonNull
     public byte[] readFully() throws IOException {
         FileInputStream stream = openRead();
         int pos = 0;
         try {
-            byte[] data = new byte[stream.available()];
+            long length = stream.getChannel().size();
+            byte[] data = new byte[(length <= 0 || length > 2147483639) ? stream.available() : (int) length];
             while (true) {
                 int amt = stream.read(data, pos, data.length - pos);
                 if (amt <= 0) {
@@ -0,0 +1,361 @@
+package android.support.v4.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+public class AtomicJournal {
+    private static final int DEFAULT_GROUP_COMMIT_BYTES = 65536;
+    private static final long MIN_COMPACTION_BYTES = 1048576;
+    private static final int OP_PUT = 1;
+    private static final int OP_REMOVE = 2;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final String TAG = "AtomicJournal";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private final Object mCompactLock = new Object();
+    private final CRC32 mCrc = new CRC32();
+    private int mGroupCommitBytes = DEFAULT_GROUP_COMMIT_BYTES;
+    private RandomAccessFile mJournal;
+    private final File mJournalName;
+    private final ByteArrayOutputStream mPending = new ByteArrayOutputStream();
+    private final DataOutputStream mRecord;
+    private final ByteArrayOutputStream mRecordBuffer = new ByteArrayOutputStream();
+    private final AtomicFile mSnapshot;
+    private long mSnapshotBytes;
+    private final HashMap<String, byte[]> mState = new HashMap<>();
+
+    private AtomicJournal(File baseName) {
+        this.mSnapshot = new AtomicFile(baseName);
+        this.mJournalName = new File(baseName.getPath() + ".journal");
+        this.mRecord = new DataOutputStream(this.mRecordBuffer);
+    }
+
+    @NonNull
+    public static AtomicJournal open(@NonNull File baseName) throws IOException {
+        AtomicJournal journal = new AtomicJournal(baseName);
+        journal.recover();
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        FileInputStream snapshot = null;
+        try {
+            snapshot = this.mSnapshot.openRead();
+            long length = snapshot.getChannel().size();
+            this.mSnapshotBytes = length;
+            long end = replay(snapshot, length);
+            if (end != length) {
+                throw new IOException("Corrupt journal snapshot " + this.mSnapshot.getBaseFile() + " at offset " + end);
+            }
+        } catch (FileNotFoundException e) {
+            this.mSnapshotBytes = 0;
+        } finally {
+            if (snapshot != null) {
+                snapshot.close();
+            }
+        }
+        this.mJournal = new RandomAccessFile(this.mJournalName, "rw");
+        long length2 = this.mJournal.length();
+        FileInputStream log = new FileInputStream(this.mJournalName);
+        try {
+            long end2 = replay(log, length2);
+            log.close();
+            if (end2 != length2) {
+                Log.w(TAG, "Discarding " + (length2 - end2) + " bytes of torn journal tail in " + this.mJournalName);
+                this.mJournal.setLength(end2);
+                this.mJournal.getFD().sync();
+            }
+            this.mJournal.seek(end2);
+        } catch (IOException e2) {
+            log.close();
+            this.mJournal.close();
+            this.mJournal = null;
+            throw e2;
+        }
+    }
+
+    private long replay(FileInputStream stream, long length) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        long end = 0;
+        while (length - end >= ((long) RECORD_HEADER_SIZE)) {
+            int recordLength = in.readInt();
+            int crc = in.readInt();
+            if (recordLength < 0 || ((long) recordLength) > (length - end) - ((long) RECORD_HEADER_SIZE)) {
+                break;
+            }
+            byte[] payload = new byte[recordLength];
+            in.readFully(payload);
+            this.mCrc.reset();
+            this.mCrc.update(payload, 0, recordLength);
+            if (((int) this.mCrc.getValue()) != crc) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            try {
+                apply(record);
+            } catch (RuntimeException e) {
+                break;
+            }
+            if (record.hasRemaining()) {
+                break;
+            }
+            end += (long) (recordLength + RECORD_HEADER_SIZE);
+        }
+        return end;
+    }
+
+    private void apply(ByteBuffer in) {
+        int op = in.get();
+        byte[] keyBytes = new byte[(in.getShort() & 65535)];
+        in.get(keyBytes);
+        String key = new String(keyBytes, UTF_8);
+        if (op == OP_PUT) {
+            byte[] value = new byte[in.getInt()];
+            in.get(value);
+            this.mState.put(key, value);
+        } else if (op == OP_REMOVE) {
+            this.mState.remove(key);
+        } else {
+            throw new IllegalArgumentException("Unknown journal op " + op);
+        }
+    }
+
+    public synchronized void setGroupCommitBytes(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("bytes < 0");
+        }
+        this.mGroupCommitBytes = bytes;
+    }
+
+    @Nullable
+    public synchronized byte[] get(@NonNull String key) {
+        byte[] value = (byte[]) this.mState.get(key);
+        if (value == null) {
+            return null;
+        }
+        return (byte[]) value.clone();
+    }
+
+    public synchronized int size() {
+        return this.mState.size();
+    }
+
+    @NonNull
+    public synchronized Set<String> keySet() {
+        return Collections.unmodifiableSet(new HashMap(this.mState).keySet());
+    }
+
+    public synchronized void put(@NonNull String key, @NonNull byte[] value) throws IOException {
+        checkOpen();
+        this.mRecordBuffer.reset();
+        this.mRecord.writeByte(OP_PUT);
+        writeKey(key);
+        this.mRecord.writeInt(value.length);
+        this.mRecord.write(value);
+        append();
+        this.mState.put(key, value.clone());
+        maybeCommit();
+    }
+
+    public synchronized void remove(@NonNull String key) throws IOException {
+        checkOpen();
+        if (this.mState.containsKey(key)) {
+            this.mRecordBuffer.reset();
+            this.mRecord.writeByte(OP_REMOVE);
+            writeKey(key);
+            append();
+            this.mState.remove(key);
+            maybeCommit();
+        }
+    }
+
+    private void writeKey(String key) throws IOException {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        if (keyBytes.length > 65535) {
+            throw new IllegalArgumentException("Key is longer than 65535 bytes");
+        }
+        this.mRecord.writeShort(keyBytes.length);
+        this.mRecord.write(keyBytes);
+    }
+
+    private void append() {
+        byte[] payload = this.mRecordBuffer.toByteArray();
+        this.mCrc.reset();
+        this.mCrc.update(payload, 0, payload.length);
+        writeRecord(this.mPending, payload, (int) this.mCrc.getValue());
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, byte[] payload, int crc) {
+        int length = payload.length;
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        out.write(crc >>> 24);
+        out.write(crc >>> 16);
+        out.write(crc >>> 8);
+        out.write(crc);
+        out.write(payload, 0, length);
+    }
+
+    private void maybeCommit() throws IOException {
+        if (this.mPending.size() >= this.mGroupCommitBytes) {
+            commit();
+        }
+    }
+
+    public synchronized void commit() throws IOException {
+        checkOpen();
+        if (this.mPending.size() != 0) {
+            long start = this.mJournal.getFilePointer();
+            try {
+                this.mJournal.write(this.mPending.toByteArray());
+                this.mJournal.getFD().sync();
+                this.mPending.reset();
+            } catch (IOException e) {
+                this.mJournal.setLength(start);
+                this.mJournal.seek(start);
+                throw e;
+            }
+        }
+    }
+
+    public synchronized boolean needsCompaction() throws IOException {
+        checkOpen();
+        long journalBytes = this.mJournal.length() + ((long) this.mPending.size());
+        return journalBytes >= MIN_COMPACTION_BYTES && journalBytes > this.mSnapshotBytes;
+    }
+
+    public void compact() throws IOException {
+        HashMap<String, byte[]> state;
+        long journalMark;
+        synchronized (this.mCompactLock) {
+            synchronized (this) {
+                checkOpen();
+                state = new HashMap<>(this.mState);
+                journalMark = this.mJournal.length();
+            }
+            byte[] snapshot = encode(state);
+            FileOutputStream out = this.mSnapshot.startWrite();
+            try {
+                out.write(snapshot);
+            } catch (IOException e) {
+                this.mSnapshot.failWrite(out);
+                throw e;
+            }
+            this.mSnapshot.finishWrite(out);
+            synchronized (this) {
+                this.mSnapshotBytes = (long) snapshot.length;
+            }
+            truncateJournalBefore(journalMark);
+        }
+    }
+
+    private void truncateJournalBefore(long mark) throws IOException {
+        File tmp = new File(this.mJournalName.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            long copied = copyJournal(mark, out.getChannel());
+            out.getFD().sync();
+            synchronized (this) {
+                checkOpen();
+                long end = this.mJournal.length();
+                if (end < copied) {
+                    out.getChannel().truncate(end - mark);
+                } else if (end > copied) {
+                    copyJournal(copied, out.getChannel());
+                }
+                out.getFD().sync();
+                out.close();
+                this.mJournal.close();
+                if (!tmp.renameTo(this.mJournalName)) {
+                    Log.w(TAG, "Couldn't replace journal " + this.mJournalName + "; it will be replayed again on open");
+                    tmp.delete();
+                }
+                this.mJournal = new RandomAccessFile(this.mJournalName, "rw");
+                this.mJournal.seek(this.mJournal.length());
+            }
+        } catch (IOException e) {
+            out.close();
+            tmp.delete();
+            throw e;
+        }
+    }
+
+    private long copyJournal(long from, FileChannel target) throws IOException {
+        RandomAccessFile source = new RandomAccessFile(this.mJournalName, "r");
+        try {
+            FileChannel channel = source.getChannel();
+            long end = channel.size();
+            long position = from;
+            while (position < end) {
+                long n = channel.transferTo(position, end - position, target);
+                if (n <= 0) {
+                    throw new IOException("Couldn't copy the tail of journal " + this.mJournalName);
+                }
+                position += n;
+            }
+            return end;
+        } finally {
+            source.close();
+        }
+    }
+
+    private byte[] encode(Map<String, byte[]> state) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBuffer);
+        CRC32 crc = new CRC32();
+        for (Entry<String, byte[]> entry : state.entrySet()) {
+            byte[] keyBytes = ((String) entry.getKey()).getBytes(UTF_8);
+            byte[] value = (byte[]) entry.getValue();
+            payloadBuffer.reset();
+            payload.writeByte(OP_PUT);
+            payload.writeShort(keyBytes.length);
+            payload.write(keyBytes);
+            payload.writeInt(value.length);
+            payload.write(value);
+            byte[] record = payloadBuffer.toByteArray();
+            crc.reset();
+            crc.update(record, 0, record.length);
+            writeRecord(out, record, (int) crc.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    private void checkOpen() throws IOException {
+        if (this.mJournal == null) {
+            throw new IOException("Journal is closed");
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        if (this.mJournal != null) {
+            try {
+                commit();
+            } finally {
+                this.mJournal.close();
+                this.mJournal = null;
+            }
+        }
+    }
+}
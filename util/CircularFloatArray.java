@@ -0,0 +1,389 @@
+package android.support.v4.util;
+
+public final class CircularFloatArray {
+    private float[] mAggregateMax;
+    private float[] mAggregateMin;
+    private int mCapacityBitmask;
+    private float[] mElements;
+    private final int mFixedCapacity;
+    private int mHead;
+    private int mRemovalsSinceResum;
+    private int mSplit;
+    private double mSum;
+    private int mTail;
+
+    private void doubleCapacity() {
+        int n = this.mElements.length;
+        int r = n - this.mHead;
+        int newCapacity = n << 1;
+        if (newCapacity < 0) {
+            throw new RuntimeException("Max array capacity exceeded");
+        }
+        float[] a = new float[newCapacity];
+        System.arraycopy(this.mElements, this.mHead, a, 0, r);
+        System.arraycopy(this.mElements, 0, a, r, this.mHead);
+        this.mElements = a;
+        this.mHead = 0;
+        this.mTail = n;
+        this.mCapacityBitmask = newCapacity - 1;
+        onResized();
+    }
+
+    public CircularFloatArray() {
+        this(8);
+    }
+
+    public CircularFloatArray(int minCapacity) {
+        this(minCapacity, false);
+    }
+
+    public CircularFloatArray(int minCapacity, boolean fixedCapacity) {
+        int arrayCapacity;
+        if (minCapacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1");
+        } else if (minCapacity > 1073741824) {
+            throw new IllegalArgumentException("capacity must be <= 2^30");
+        } else if (fixedCapacity && minCapacity == 1073741824) {
+            throw new IllegalArgumentException("fixed capacity must be < 2^30");
+        } else {
+            int need = fixedCapacity ? minCapacity + 1 : minCapacity;
+            if (Integer.bitCount(need) != 1) {
+                arrayCapacity = Integer.highestOneBit(need - 1) << 1;
+            } else {
+                arrayCapacity = need;
+            }
+            this.mCapacityBitmask = arrayCapacity - 1;
+            this.mElements = new float[arrayCapacity];
+            this.mFixedCapacity = fixedCapacity ? minCapacity : 0;
+            resetAggregates();
+        }
+    }
+
+    public void addFirst(float e) {
+        if (this.mFixedCapacity > 0 && size() == this.mFixedCapacity) {
+            dropLast(1);
+        }
+        this.mHead = (this.mHead - 1) & this.mCapacityBitmask;
+        this.mElements[this.mHead] = e;
+        onAddFirst(e);
+        if (this.mHead == this.mTail) {
+            doubleCapacity();
+        }
+    }
+
+    public void addLast(float e) {
+        if (this.mFixedCapacity > 0 && size() == this.mFixedCapacity) {
+            dropFirst(1);
+        }
+        int index = this.mTail;
+        this.mElements[index] = e;
+        this.mTail = (this.mTail + 1) & this.mCapacityBitmask;
+        onAddLast(index, e);
+        if (this.mTail == this.mHead) {
+            doubleCapacity();
+        }
+    }
+
+    public void addLast(float[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > values.length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        if (this.mFixedCapacity > 0) {
+            if (length > this.mFixedCapacity) {
+                offset += length - this.mFixedCapacity;
+                length = this.mFixedCapacity;
+            }
+            int overflow = (size() + length) - this.mFixedCapacity;
+            if (overflow > 0) {
+                removeFromStart(overflow);
+            }
+        } else {
+            ensureCapacity(size() + length + 1);
+        }
+        int start = this.mTail;
+        int first = Math.min(length, this.mElements.length - start);
+        System.arraycopy(values, offset, this.mElements, start, first);
+        System.arraycopy(values, offset + first, this.mElements, 0, length - first);
+        this.mTail = (start + length) & this.mCapacityBitmask;
+        for (int i = 0; i < length; i++) {
+            onAddLast((start + i) & this.mCapacityBitmask, values[offset + i]);
+        }
+    }
+
+    public int drainFirst(float[] out, int offset, int maxLength) {
+        if (offset < 0 || maxLength < 0 || offset + maxLength > out.length) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        int n = Math.min(size(), maxLength);
+        int first = Math.min(n, this.mElements.length - this.mHead);
+        System.arraycopy(this.mElements, this.mHead, out, offset, first);
+        System.arraycopy(this.mElements, 0, out, offset + first, n - first);
+        removeFromStart(n);
+        return n;
+    }
+
+    private void ensureCapacity(int arrayCapacity) {
+        int n = this.mElements.length;
+        if (arrayCapacity > n) {
+            if (arrayCapacity > 1073741824) {
+                throw new RuntimeException("Max array capacity exceeded");
+            }
+            int newCapacity = Integer.highestOneBit(arrayCapacity - 1) << 1;
+            int size = size();
+            float[] a = new float[newCapacity];
+            int first = Math.min(size, n - this.mHead);
+            System.arraycopy(this.mElements, this.mHead, a, 0, first);
+            System.arraycopy(this.mElements, 0, a, first, size - first);
+            this.mElements = a;
+            this.mHead = 0;
+            this.mTail = size;
+            this.mCapacityBitmask = newCapacity - 1;
+            onResized();
+        }
+    }
+
+    public float popFirst() {
+        if (this.mHead == this.mTail) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        float result = this.mElements[this.mHead];
+        dropFirst(1);
+        return result;
+    }
+
+    public float popLast() {
+        if (this.mHead == this.mTail) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        float result = this.mElements[(this.mTail - 1) & this.mCapacityBitmask];
+        dropLast(1);
+        return result;
+    }
+
+    public void clear() {
+        this.mTail = this.mHead;
+        resetAggregates();
+    }
+
+    public void removeFromStart(int numOfElements) {
+        if (numOfElements > 0) {
+            if (numOfElements > size()) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            dropFirst(numOfElements);
+        }
+    }
+
+    public void removeFromEnd(int numOfElements) {
+        if (numOfElements > 0) {
+            if (numOfElements > size()) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            dropLast(numOfElements);
+        }
+    }
+
+    public float getFirst() {
+        if (this.mHead != this.mTail) {
+            return this.mElements[this.mHead];
+        }
+        throw new ArrayIndexOutOfBoundsException();
+    }
+
+    public float getLast() {
+        if (this.mHead != this.mTail) {
+            return this.mElements[(this.mTail - 1) & this.mCapacityBitmask];
+        }
+        throw new ArrayIndexOutOfBoundsException();
+    }
+
+    public float get(int n) {
+        if (n >= 0 && n < size()) {
+            return this.mElements[(this.mHead + n) & this.mCapacityBitmask];
+        }
+        throw new ArrayIndexOutOfBoundsException();
+    }
+
+    public int size() {
+        return (this.mTail - this.mHead) & this.mCapacityBitmask;
+    }
+
+    public boolean isEmpty() {
+        return this.mHead == this.mTail;
+    }
+
+    public int capacity() {
+        return this.mFixedCapacity > 0 ? this.mFixedCapacity : this.mCapacityBitmask;
+    }
+
+    public boolean isFixedCapacity() {
+        return this.mFixedCapacity > 0;
+    }
+
+    public double sum() {
+        if (this.mRemovalsSinceResum >= capacity()) {
+            this.mRemovalsSinceResum = 0;
+            this.mSum = computeSum();
+        }
+        return this.mSum;
+    }
+
+    public double mean() {
+        int n = size();
+        if (n != 0) {
+            return ((double) sum()) / ((double) n);
+        }
+        throw new ArrayIndexOutOfBoundsException();
+    }
+
+    public float min() {
+        if (this.mHead == this.mTail) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        ensureAggregates();
+        int last = (this.mTail - 1) & this.mCapacityBitmask;
+        if (this.mSplit == this.mHead) {
+            return this.mAggregateMin[last];
+        }
+        if (this.mSplit == this.mTail) {
+            return this.mAggregateMin[this.mHead];
+        }
+        return minOf(this.mAggregateMin[this.mHead], this.mAggregateMin[last]);
+    }
+
+    public float max() {
+        if (this.mHead == this.mTail) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        ensureAggregates();
+        int last = (this.mTail - 1) & this.mCapacityBitmask;
+        if (this.mSplit == this.mHead) {
+            return this.mAggregateMax[last];
+        }
+        if (this.mSplit == this.mTail) {
+            return this.mAggregateMax[this.mHead];
+        }
+        return maxOf(this.mAggregateMax[this.mHead], this.mAggregateMax[last]);
+    }
+
+    private void onAddFirst(float e) {
+        this.mSum += (double) e;
+        if (this.mAggregateMin != null) {
+            int next = (this.mHead + 1) & this.mCapacityBitmask;
+            if (next == this.mSplit) {
+                this.mAggregateMin[this.mHead] = e;
+                this.mAggregateMax[this.mHead] = e;
+                return;
+            }
+            this.mAggregateMin[this.mHead] = minOf(e, this.mAggregateMin[next]);
+            this.mAggregateMax[this.mHead] = maxOf(e, this.mAggregateMax[next]);
+        }
+    }
+
+    private void onAddLast(int index, float e) {
+        this.mSum += (double) e;
+        if (this.mAggregateMin != null) {
+            if (index == this.mSplit) {
+                this.mAggregateMin[index] = e;
+                this.mAggregateMax[index] = e;
+                return;
+            }
+            int previous = (index - 1) & this.mCapacityBitmask;
+            this.mAggregateMin[index] = minOf(e, this.mAggregateMin[previous]);
+            this.mAggregateMax[index] = maxOf(e, this.mAggregateMax[previous]);
+        }
+    }
+
+    private void dropFirst(int n) {
+        for (int i = 0; i < n; i++) {
+            this.mSum -= (double) this.mElements[(this.mHead + i) & this.mCapacityBitmask];
+        }
+        this.mRemovalsSinceResum += n;
+        int frontSize = (this.mSplit - this.mHead) & this.mCapacityBitmask;
+        this.mHead = (this.mHead + n) & this.mCapacityBitmask;
+        if (this.mAggregateMin != null && n > frontSize) {
+            rebuildAggregates();
+        }
+    }
+
+    private void dropLast(int n) {
+        int backSize = (this.mTail - this.mSplit) & this.mCapacityBitmask;
+        this.mTail = (this.mTail - n) & this.mCapacityBitmask;
+        for (int i = 0; i < n; i++) {
+            this.mSum -= (double) this.mElements[(this.mTail + i) & this.mCapacityBitmask];
+        }
+        this.mRemovalsSinceResum += n;
+        if (this.mAggregateMin != null && n > backSize) {
+            rebuildAggregates();
+        }
+    }
+
+    private void onResized() {
+        if (this.mAggregateMin != null) {
+            this.mAggregateMin = new float[this.mElements.length];
+            this.mAggregateMax = new float[this.mElements.length];
+            rebuildAggregates();
+        }
+    }
+
+    private void ensureAggregates() {
+        if (this.mAggregateMin == null) {
+            this.mAggregateMin = new float[this.mElements.length];
+            this.mAggregateMax = new float[this.mElements.length];
+            rebuildAggregates();
+        }
+    }
+
+    private void rebuildAggregates() {
+        int n = size();
+        int half = n >> 1;
+        this.mSplit = (this.mHead + half) & this.mCapacityBitmask;
+        for (int i = half - 1; i >= 0; i--) {
+            int index = (this.mHead + i) & this.mCapacityBitmask;
+            float e = this.mElements[index];
+            if (i == half - 1) {
+                this.mAggregateMin[index] = e;
+                this.mAggregateMax[index] = e;
+            } else {
+                int next = (index + 1) & this.mCapacityBitmask;
+                this.mAggregateMin[index] = minOf(e, this.mAggregateMin[next]);
+                this.mAggregateMax[index] = maxOf(e, this.mAggregateMax[next]);
+            }
+        }
+        for (int i2 = half; i2 < n; i2++) {
+            int index2 = (this.mHead + i2) & this.mCapacityBitmask;
+            float e2 = this.mElements[index2];
+            if (i2 == half) {
+                this.mAggregateMin[index2] = e2;
+                this.mAggregateMax[index2] = e2;
+            } else {
+                int previous = (index2 - 1) & this.mCapacityBitmask;
+                this.mAggregateMin[index2] = minOf(e2, this.mAggregateMin[previous]);
+                this.mAggregateMax[index2] = maxOf(e2, this.mAggregateMax[previous]);
+            }
+        }
+    }
+
+    private void resetAggregates() {
+        this.mSum = 0;
+        this.mRemovalsSinceResum = 0;
+        this.mSplit = this.mHead;
+    }
+
+    private double computeSum() {
+        double total = 0;
+        int n = size();
+        for (int i = 0; i < n; i++) {
+            total += (double) this.mElements[(this.mHead + i) & this.mCapacityBitmask];
+        }
+        return total;
+    }
+
+    private static float minOf(float a, float b) {
+        return (b < a || Float.isNaN(a)) ? b : a;
+    }
+
+    private static float maxOf(float a, float b) {
+        return (b > a || Float.isNaN(a)) ? b : a;
+    }
+}
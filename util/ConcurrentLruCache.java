@@ -0,0 +1,350 @@
+package android.support.v4.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentLruCache<K, V> {
+    private static final int DEFAULT_SEGMENTS = 16;
+    private final Object evictionLock = new Object();
+    private volatile int maxSize;
+    private final int segmentShift;
+    private final Segment<K, V>[] segments;
+    /* access modifiers changed from: private */
+    public final AtomicInteger size = new AtomicInteger();
+
+    static final class Node<K, V> {
+        final K key;
+        long lastAccess;
+        final V value;
+
+        Node(K key2, V value2, long lastAccess2) {
+            this.key = key2;
+            this.value = value2;
+            this.lastAccess = lastAccess2;
+        }
+    }
+
+    static final class Segment<K, V> {
+        final ConcurrentLruCache<K, V> cache;
+        int createCount;
+        int evictionCount;
+        int hitCount;
+        final LinkedHashMap<K, Node<K, V>> map = new LinkedHashMap<>(0, 0.75f, true);
+        int missCount;
+        int putCount;
+
+        Segment(ConcurrentLruCache<K, V> cache2) {
+            this.cache = cache2;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public V get(K key) {
+            Node<K, V> previous;
+            synchronized (this) {
+                Node<K, V> node = (Node) this.map.get(key);
+                if (node != null) {
+                    node.lastAccess = System.nanoTime();
+                    this.hitCount++;
+                    return node.value;
+                }
+                this.missCount++;
+            }
+            V createdValue = this.cache.create(key);
+            if (createdValue == null) {
+                return null;
+            }
+            synchronized (this) {
+                this.createCount++;
+                previous = (Node) this.map.put(key, new Node<>(key, createdValue, System.nanoTime()));
+                if (previous != null) {
+                    this.map.put(key, previous);
+                } else {
+                    this.cache.size.addAndGet(this.cache.safeSizeOf(key, createdValue));
+                }
+            }
+            if (previous != null) {
+                this.cache.entryRemoved(false, key, createdValue, previous.value);
+                return previous.value;
+            }
+            this.cache.trimToSize(this.cache.maxSize);
+            return createdValue;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public V put(K key, V value) {
+            Node<K, V> previous;
+            synchronized (this) {
+                this.putCount++;
+                int delta = this.cache.safeSizeOf(key, value);
+                previous = (Node) this.map.put(key, new Node<>(key, value, System.nanoTime()));
+                if (previous != null) {
+                    delta -= this.cache.safeSizeOf(key, previous.value);
+                }
+                this.cache.size.addAndGet(delta);
+            }
+            if (previous == null) {
+                this.cache.trimToSize(this.cache.maxSize);
+                return null;
+            }
+            this.cache.entryRemoved(false, key, previous.value, value);
+            this.cache.trimToSize(this.cache.maxSize);
+            return previous.value;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public V remove(K key) {
+            Node<K, V> previous;
+            synchronized (this) {
+                previous = (Node) this.map.remove(key);
+                if (previous != null) {
+                    this.cache.size.addAndGet(-this.cache.safeSizeOf(key, previous.value));
+                }
+            }
+            if (previous == null) {
+                return null;
+            }
+            this.cache.entryRemoved(false, key, previous.value, null);
+            return previous.value;
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized Node<K, V> eldest() {
+            if (this.map.isEmpty()) {
+                return null;
+            }
+            return (Node) ((Entry) this.map.entrySet().iterator().next()).getValue();
+        }
+
+        /* access modifiers changed from: 0000 */
+        public synchronized Node<K, V> evictEldest() {
+            if (this.map.isEmpty()) {
+                return null;
+            }
+            Node<K, V> node = (Node) ((Entry) this.map.entrySet().iterator().next()).getValue();
+            this.map.remove(node.key);
+            this.cache.size.addAndGet(-this.cache.safeSizeOf(node.key, node.value));
+            this.evictionCount++;
+            return node;
+        }
+    }
+
+    public ConcurrentLruCache(int maxSize2) {
+        this(maxSize2, DEFAULT_SEGMENTS);
+    }
+
+    public ConcurrentLruCache(int maxSize2, int concurrencyLevel) {
+        if (maxSize2 <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        } else if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel <= 0");
+        } else {
+            int count = 1;
+            while (count < concurrencyLevel && (count << 1) <= maxSize2) {
+                count <<= 1;
+            }
+            this.maxSize = maxSize2;
+            this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+            this.segments = new Segment[count];
+            for (int i = 0; i < count; i++) {
+                this.segments[i] = new Segment<>(this);
+            }
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        if (this.segments.length == 1) {
+            return this.segments[0];
+        }
+        int h = key.hashCode();
+        return this.segments[((h ^ (h >>> 16)) * -1640531527) >>> this.segmentShift];
+    }
+
+    public void resize(int maxSize2) {
+        if (maxSize2 <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        this.maxSize = maxSize2;
+        trimToSize(maxSize2);
+    }
+
+    public final V get(K key) {
+        if (key != null) {
+            return segmentFor(key).get(key);
+        }
+        throw new NullPointerException("key == null");
+    }
+
+    public final V put(K key, V value) {
+        if (key != null && value != null) {
+            return segmentFor(key).put(key, value);
+        }
+        throw new NullPointerException("key == null || value == null");
+    }
+
+    public void trimToSize(int maxSize2) {
+        Node<K, V> evicted;
+        while (true) {
+            int observed = this.size.get();
+            if (observed >= 0 && observed <= maxSize2) {
+                return;
+            }
+            synchronized (this.evictionLock) {
+                int current = this.size.get();
+                if (current < 0) {
+                    throw new IllegalStateException(getClass().getName() + ".sizeOf() is reporting inconsistent results!");
+                } else if (current <= maxSize2) {
+                    return;
+                } else {
+                    Segment<K, V> victim = null;
+                    long oldest = Long.MAX_VALUE;
+                    for (Segment<K, V> segment : this.segments) {
+                        Node<K, V> eldest = segment.eldest();
+                        if (eldest != null && (victim == null || eldest.lastAccess - oldest < 0)) {
+                            victim = segment;
+                            oldest = eldest.lastAccess;
+                        }
+                    }
+                    if (victim == null) {
+                        return;
+                    }
+                    evicted = victim.evictEldest();
+                }
+            }
+            if (evicted != null) {
+                entryRemoved(true, evicted.key, evicted.value, null);
+            }
+        }
+    }
+
+    public final V remove(K key) {
+        if (key != null) {
+            return segmentFor(key).remove(key);
+        }
+        throw new NullPointerException("key == null");
+    }
+
+    /* access modifiers changed from: protected */
+    public void entryRemoved(boolean evicted, K k, V v, V v2) {
+    }
+
+    /* access modifiers changed from: protected */
+    public V create(K k) {
+        return null;
+    }
+
+    /* access modifiers changed from: private */
+    public int safeSizeOf(K key, V value) {
+        int result = sizeOf(key, value);
+        if (result >= 0) {
+            return result;
+        }
+        throw new IllegalStateException("Negative size: " + key + "=" + value);
+    }
+
+    /* access modifiers changed from: protected */
+    public int sizeOf(K k, V v) {
+        return 1;
+    }
+
+    public final void evictAll() {
+        trimToSize(-1);
+    }
+
+    public final int segmentCount() {
+        return this.segments.length;
+    }
+
+    public final int size() {
+        return this.size.get();
+    }
+
+    public final int maxSize() {
+        return this.maxSize;
+    }
+
+    public final int hitCount() {
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.hitCount;
+            }
+        }
+        return total;
+    }
+
+    public final int missCount() {
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.missCount;
+            }
+        }
+        return total;
+    }
+
+    public final int createCount() {
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.createCount;
+            }
+        }
+        return total;
+    }
+
+    public final int putCount() {
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.putCount;
+            }
+        }
+        return total;
+    }
+
+    public final int evictionCount() {
+        int total = 0;
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                total += segment.evictionCount;
+            }
+        }
+        return total;
+    }
+
+    public final Map<K, V> snapshot() {
+        List<Node<K, V>> nodes = new ArrayList<>();
+        for (Segment<K, V> segment : this.segments) {
+            synchronized (segment) {
+                nodes.addAll(segment.map.values());
+            }
+        }
+        Collections.sort(nodes, new Comparator<Node<K, V>>() {
+            public int compare(Node<K, V> a, Node<K, V> b) {
+                long diff = a.lastAccess - b.lastAccess;
+                if (diff < 0) {
+                    return -1;
+                }
+                return diff > 0 ? 1 : 0;
+            }
+        });
+        Map<K, V> copy = new LinkedHashMap<>();
+        for (Node<K, V> node : nodes) {
+            copy.put(node.key, node.value);
+        }
+        return copy;
+    }
+
+    public final String toString() {
+        int hits = hitCount();
+        int accesses = hits + missCount();
+        return String.format(Locale.US, "ConcurrentLruCache[maxSize=%d,segments=%d,hits=%d,misses=%d,hitRate=%d%%]", new Object[]{Integer.valueOf(maxSize()), Integer.valueOf(this.segments.length), Integer.valueOf(hits), Integer.valueOf(accesses - hits), Integer.valueOf(accesses != 0 ? (hits * 100) / accesses : 0)});
+    }
+}
@@ -25,6 +25,115 @@ class ContainerHelpers {
         return need;
     }
 
+    static int hashInt(int key) {
+        int h = key * -1640531527;
+        return (h >>> 16) ^ h;
+    }
+
+    static int hashLong(long key) {
+        long h = -7046029254386353131L * key;
+        int folded = (int) ((h >>> 32) ^ h);
+        return (folded >>> 16) ^ folded;
+    }
+
+    static int hashTableSizeFor(int capacity) {
+        return Integer.highestOneBit((capacity * 2) - 1) << 1;
+    }
+
+    static int probe(int[] table, int[] keys, int key) {
+        int mask = table.length - 1;
+        int slot = hashInt(key) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return slot ^ -1;
+            }
+            if (keys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    static int probe(int[] table, long[] keys, long key) {
+        int mask = table.length - 1;
+        int slot = hashLong(key) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return slot ^ -1;
+            }
+            if (keys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    static void unlinkSlot(int[] table, int[] keys, int slot) {
+        int mask = table.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            int entry = table[next];
+            if (entry == 0) {
+                table[hole] = 0;
+                return;
+            }
+            int home = hashInt(keys[entry - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = entry;
+                hole = next;
+            }
+        }
+    }
+
+    static void unlinkSlot(int[] table, long[] keys, int slot) {
+        int mask = table.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            int entry = table[next];
+            if (entry == 0) {
+                table[hole] = 0;
+                return;
+            }
+            int home = hashLong(keys[entry - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = entry;
+                hole = next;
+            }
+        }
+    }
+
+    static int[] buildTable(int[] keys, int size, int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hashInt(keys[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    static int[] buildTable(long[] keys, int size, int tableSize) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hashLong(keys[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
     public static boolean equal(Object a, Object b) {
         return a == b || (a != null && a.equals(b));
     }
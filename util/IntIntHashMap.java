@@ -0,0 +1,186 @@
+package android.support.v4.util;
+
+public class IntIntHashMap implements Cloneable {
+    private static final int MIN_CAPACITY = 4;
+    private int[] mKeys;
+    private int mSize;
+    private int[] mTable;
+    private int[] mValues;
+
+    public IntIntHashMap() {
+        this(10);
+    }
+
+    public IntIntHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity < 0");
+        }
+        int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+        this.mKeys = new int[capacity];
+        this.mValues = new int[capacity];
+        this.mTable = new int[ContainerHelpers.hashTableSizeFor(capacity)];
+        this.mSize = 0;
+    }
+
+    public IntIntHashMap clone() {
+        IntIntHashMap clone = null;
+        try {
+            clone = (IntIntHashMap) super.clone();
+            clone.mKeys = (int[]) this.mKeys.clone();
+            clone.mValues = (int[]) this.mValues.clone();
+            clone.mTable = (int[]) this.mTable.clone();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            return clone;
+        }
+    }
+
+    public int get(int key) {
+        return get(key, 0);
+    }
+
+    public int get(int key, int valueIfKeyNotFound) {
+        int slot = slotOf(key);
+        return slot < 0 ? valueIfKeyNotFound : this.mValues[this.mTable[slot] - 1];
+    }
+
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    public void delete(int key) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            removeSlot(slot, this.mTable[slot] - 1);
+        }
+    }
+
+    public void remove(int key) {
+        delete(key);
+    }
+
+    public void removeAt(int index) {
+        if (index >= this.mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        removeSlot(slotOf(this.mKeys[index]), index);
+    }
+
+    public void put(int key, int value) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            this.mValues[this.mTable[slot] - 1] = value;
+            return;
+        }
+        if (this.mSize >= this.mKeys.length) {
+            grow();
+            slot = slotOf(key);
+        }
+        int index = this.mSize;
+        this.mKeys[index] = key;
+        this.mValues[index] = value;
+        this.mTable[slot ^ -1] = index + 1;
+        this.mSize = index + 1;
+    }
+
+    public void append(int key, int value) {
+        put(key, value);
+    }
+
+    public int size() {
+        return this.mSize;
+    }
+
+    public int keyAt(int index) {
+        if (index < this.mSize) {
+            return this.mKeys[index];
+        }
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public int valueAt(int index) {
+        if (index < this.mSize) {
+            return this.mValues[index];
+        }
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public void setValueAt(int index, int value) {
+        if (index >= this.mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        this.mValues[index] = value;
+    }
+
+    public int indexOfKey(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return -1;
+        }
+        return this.mTable[slot] - 1;
+    }
+
+    public int indexOfValue(int value) {
+        for (int i = 0; i < this.mSize; i++) {
+            if (this.mValues[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void clear() {
+        this.mSize = 0;
+        int[] table = this.mTable;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = 0;
+        }
+    }
+
+    private int slotOf(int key) {
+        return ContainerHelpers.probe(this.mTable, this.mKeys, key);
+    }
+
+    private void removeSlot(int slot, int index) {
+        ContainerHelpers.unlinkSlot(this.mTable, this.mKeys, slot);
+        int last = this.mSize - 1;
+        if (index != last) {
+            this.mTable[slotOf(this.mKeys[last])] = index + 1;
+            this.mKeys[index] = this.mKeys[last];
+            this.mValues[index] = this.mValues[last];
+        }
+        this.mSize = last;
+    }
+
+    private void grow() {
+        int capacity = this.mKeys.length * 2;
+        int[] nkeys = new int[capacity];
+        int[] nvalues = new int[capacity];
+        System.arraycopy(this.mKeys, 0, nkeys, 0, this.mSize);
+        System.arraycopy(this.mValues, 0, nvalues, 0, this.mSize);
+        this.mKeys = nkeys;
+        this.mValues = nvalues;
+        int tableSize = ContainerHelpers.hashTableSizeFor(capacity);
+        if (tableSize != this.mTable.length) {
+            this.mTable = ContainerHelpers.buildTable(nkeys, this.mSize, tableSize);
+        }
+    }
+
+    public String toString() {
+        if (size() <= 0) {
+            return "{}";
+        }
+        StringBuilder buffer = new StringBuilder(this.mSize * 28);
+        buffer.append('{');
+        for (int i = 0; i < this.mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(keyAt(i));
+            buffer.append('=');
+            buffer.append(valueAt(i));
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,186 @@
+package android.support.v4.util;
+
+public class LongLongHashMap implements Cloneable {
+    private static final int MIN_CAPACITY = 4;
+    private long[] mKeys;
+    private int mSize;
+    private int[] mTable;
+    private long[] mValues;
+
+    public LongLongHashMap() {
+        this(10);
+    }
+
+    public LongLongHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity < 0");
+        }
+        int capacity = Math.max(initialCapacity, MIN_CAPACITY);
+        this.mKeys = new long[capacity];
+        this.mValues = new long[capacity];
+        this.mTable = new int[ContainerHelpers.hashTableSizeFor(capacity)];
+        this.mSize = 0;
+    }
+
+    public LongLongHashMap clone() {
+        LongLongHashMap clone = null;
+        try {
+            clone = (LongLongHashMap) super.clone();
+            clone.mKeys = (long[]) this.mKeys.clone();
+            clone.mValues = (long[]) this.mValues.clone();
+            clone.mTable = (int[]) this.mTable.clone();
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            return clone;
+        }
+    }
+
+    public long get(long key) {
+        return get(key, 0);
+    }
+
+    public long get(long key, long valueIfKeyNotFound) {
+        int slot = slotOf(key);
+        return slot < 0 ? valueIfKeyNotFound : this.mValues[this.mTable[slot] - 1];
+    }
+
+    public boolean containsKey(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    public void delete(long key) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            removeSlot(slot, this.mTable[slot] - 1);
+        }
+    }
+
+    public void remove(long key) {
+        delete(key);
+    }
+
+    public void removeAt(int index) {
+        if (index >= this.mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        removeSlot(slotOf(this.mKeys[index]), index);
+    }
+
+    public void put(long key, long value) {
+        int slot = slotOf(key);
+        if (slot >= 0) {
+            this.mValues[this.mTable[slot] - 1] = value;
+            return;
+        }
+        if (this.mSize >= this.mKeys.length) {
+            grow();
+            slot = slotOf(key);
+        }
+        int index = this.mSize;
+        this.mKeys[index] = key;
+        this.mValues[index] = value;
+        this.mTable[slot ^ -1] = index + 1;
+        this.mSize = index + 1;
+    }
+
+    public void append(long key, long value) {
+        put(key, value);
+    }
+
+    public int size() {
+        return this.mSize;
+    }
+
+    public long keyAt(int index) {
+        if (index < this.mSize) {
+            return this.mKeys[index];
+        }
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public long valueAt(int index) {
+        if (index < this.mSize) {
+            return this.mValues[index];
+        }
+        throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    public void setValueAt(int index, long value) {
+        if (index >= this.mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        this.mValues[index] = value;
+    }
+
+    public int indexOfKey(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return -1;
+        }
+        return this.mTable[slot] - 1;
+    }
+
+    public int indexOfValue(long value) {
+        for (int i = 0; i < this.mSize; i++) {
+            if (this.mValues[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void clear() {
+        this.mSize = 0;
+        int[] table = this.mTable;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = 0;
+        }
+    }
+
+    private int slotOf(long key) {
+        return ContainerHelpers.probe(this.mTable, this.mKeys, key);
+    }
+
+    private void removeSlot(int slot, int index) {
+        ContainerHelpers.unlinkSlot(this.mTable, this.mKeys, slot);
+        int last = this.mSize - 1;
+        if (index != last) {
+            this.mTable[slotOf(this.mKeys[last])] = index + 1;
+            this.mKeys[index] = this.mKeys[last];
+            this.mValues[index] = this.mValues[last];
+        }
+        this.mSize = last;
+    }
+
+    private void grow() {
+        int capacity = this.mKeys.length * 2;
+        long[] nkeys = new long[capacity];
+        long[] nvalues = new long[capacity];
+        System.arraycopy(this.mKeys, 0, nkeys, 0, this.mSize);
+        System.arraycopy(this.mValues, 0, nvalues, 0, this.mSize);
+        this.mKeys = nkeys;
+        this.mValues = nvalues;
+        int tableSize = ContainerHelpers.hashTableSizeFor(capacity);
+        if (tableSize != this.mTable.length) {
+            this.mTable = ContainerHelpers.buildTable(nkeys, this.mSize, tableSize);
+        }
+    }
+
+    public String toString() {
+        if (size() <= 0) {
+            return "{}";
+        }
+        StringBuilder buffer = new StringBuilder(this.mSize * 28);
+        buffer.append('{');
+        for (int i = 0; i < this.mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(keyAt(i));
+            buffer.append('=');
+            buffer.append(valueAt(i));
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+}
@@ -2,6 +2,11 @@ package android.support.v4.util;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public final class Pools {
 
@@ -80,6 +85,124 @@ public final class Pools {
         }
     }
 
+    public static class ConcurrentPool<T> implements Pool<T> {
+        private static final int HIT = 0;
+        private static final int MISS = 1;
+        private static final int OVERFLOW = 2;
+        private static final int STRIPES = 8;
+        private static final int STRIPE_WIDTH = 16;
+        private final AtomicLongArray mCounters = new AtomicLongArray(STRIPES * STRIPE_WIDTH);
+        private final Set<Identity> mPooled;
+        private final AtomicReferenceArray<T> mSlots;
+
+        private static final class Identity {
+            private final Object mInstance;
+
+            Identity(Object instance) {
+                this.mInstance = instance;
+            }
+
+            public boolean equals(Object o) {
+                return (o instanceof Identity) && ((Identity) o).mInstance == this.mInstance;
+            }
+
+            public int hashCode() {
+                return System.identityHashCode(this.mInstance);
+            }
+        }
+
+        public ConcurrentPool(int maxPoolSize) {
+            this(maxPoolSize, false);
+        }
+
+        public ConcurrentPool(int maxPoolSize, boolean debug) {
+            if (maxPoolSize <= 0) {
+                throw new IllegalArgumentException("The max pool size must be > 0");
+            }
+            this.mSlots = new AtomicReferenceArray<>(maxPoolSize);
+            this.mPooled = debug ? Collections.newSetFromMap(new ConcurrentHashMap()) : null;
+        }
+
+        public T acquire() {
+            int probe = probe();
+            int n = this.mSlots.length();
+            int start = (probe & Integer.MAX_VALUE) % n;
+            int i = start;
+            do {
+                if (this.mSlots.get(i) != null) {
+                    T instance = this.mSlots.getAndSet(i, null);
+                    if (instance != null) {
+                        if (this.mPooled != null) {
+                            this.mPooled.remove(new Identity(instance));
+                        }
+                        count(probe, HIT);
+                        return instance;
+                    }
+                }
+                i++;
+                if (i == n) {
+                    i = 0;
+                }
+            } while (i != start);
+            count(probe, MISS);
+            return null;
+        }
+
+        public boolean release(@NonNull T instance) {
+            if (this.mPooled == null || this.mPooled.add(new Identity(instance))) {
+                int probe = probe();
+                int n = this.mSlots.length();
+                int start = (probe & Integer.MAX_VALUE) % n;
+                int i = start;
+                do {
+                    if (this.mSlots.get(i) == null && this.mSlots.compareAndSet(i, null, instance)) {
+                        return true;
+                    }
+                    i++;
+                    if (i == n) {
+                        i = 0;
+                    }
+                } while (i != start);
+                if (this.mPooled != null) {
+                    this.mPooled.remove(new Identity(instance));
+                }
+                count(probe, OVERFLOW);
+                return false;
+            }
+            throw new IllegalStateException("Already in the pool!");
+        }
+
+        public long getHitCount() {
+            return sum(HIT);
+        }
+
+        public long getMissCount() {
+            return sum(MISS);
+        }
+
+        public long getOverflowCount() {
+            return sum(OVERFLOW);
+        }
+
+        private static int probe() {
+            long id = Thread.currentThread().getId();
+            int h = ((int) (id ^ (id >>> 32))) * -1640531527;
+            return (h >>> 16) ^ h;
+        }
+
+        private void count(int probe, int kind) {
+            this.mCounters.incrementAndGet(((probe & (STRIPES - 1)) * STRIPE_WIDTH) + kind);
+        }
+
+        private long sum(int kind) {
+            long total = 0;
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                total += this.mCounters.get((stripe * STRIPE_WIDTH) + kind);
+            }
+            return total;
+        }
+    }
+
     private Pools() {
     }
 }
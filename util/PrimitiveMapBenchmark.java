@@ -0,0 +1,461 @@
+package android.support.v4.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+public final class PrimitiveMapBenchmark {
+    private static final int CHECK_KEY_SPACE = 4096;
+    private static final int CHECK_OPERATIONS = 200000;
+    private static final long KEY_SPREAD = -7046029254386353131L;
+    private static final int LOOKUPS = 1000000;
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final int[] SIZES = {4, 8, 16, 32, 64, 128, 256, 512, 1024, 4096, 16384, 65536};
+    private static final int TARGET_INSERTS = 500000;
+    private static final int VERIFY_INTERVAL = 1024;
+
+    interface Subject {
+        Subject copy();
+
+        void clear();
+
+        void delete(long j);
+
+        long get(long j);
+
+        int indexOfKey(long j);
+
+        long keyAt(int i);
+
+        void put(long j, long j2);
+
+        void removeAt(int i);
+
+        int size();
+
+        long valueAt(int i);
+    }
+
+    public static final class Result {
+        final long hashMapNanos;
+        final String operation;
+        final long primitiveNanos;
+        final int size;
+        final long sparseArrayNanos;
+
+        Result(String operation2, int size2, long primitiveNanos2, long sparseArrayNanos2, long hashMapNanos2) {
+            this.operation = operation2;
+            this.size = size2;
+            this.primitiveNanos = primitiveNanos2;
+            this.sparseArrayNanos = sparseArrayNanos2;
+            this.hashMapNanos = hashMapNanos2;
+        }
+
+        public String toString() {
+            return String.format(Locale.US, "%s, %d entries: IntObjectHashMap %dns, SparseArrayCompat %dns, HashMap %dns per op", new Object[]{this.operation, Integer.valueOf(this.size), Long.valueOf(this.primitiveNanos), Long.valueOf(this.sparseArrayNanos), Long.valueOf(this.hashMapNanos)});
+        }
+    }
+
+    private PrimitiveMapBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        checkAll(seed, CHECK_OPERATIONS, CHECK_KEY_SPACE);
+        System.out.println("Primitive maps agree with HashMap over " + CHECK_OPERATIONS + " operations (seed " + seed + ")");
+        compareInserts(SIZES, TARGET_INSERTS, seed);
+        compareLookups(SIZES, LOOKUPS, seed);
+        report(compareInserts(SIZES, TARGET_INSERTS, seed));
+        report(compareLookups(SIZES, LOOKUPS, seed));
+    }
+
+    private static void report(Result[] results) {
+        for (Result result : results) {
+            System.out.println(result);
+        }
+        int size = crossover(results);
+        String operation = results[0].operation;
+        if (size < 0) {
+            System.out.println(operation + ": SparseArrayCompat is at least as fast at every measured size");
+        } else if (size == results[0].size) {
+            System.out.println(operation + ": IntObjectHashMap is faster at every measured size");
+        } else {
+            System.out.println(operation + ": IntObjectHashMap is faster from " + size + " entries");
+        }
+    }
+
+    public static int crossover(Result[] results) {
+        int size = -1;
+        for (int i = results.length - 1; i >= 0 && results[i].primitiveNanos < results[i].sparseArrayNanos; i--) {
+            size = results[i].size;
+        }
+        return size;
+    }
+
+    static void checkAll(long seed, int operations, int keySpace) {
+        check("IntIntHashMap", intInt(new IntIntHashMap()), false, seed, operations, keySpace);
+        check("IntObjectHashMap", intObject(new IntObjectHashMap()), false, seed, operations, keySpace);
+        check("LongLongHashMap", longLong(new LongLongHashMap()), true, seed, operations, keySpace);
+        check("LongObjectHashMap", longObject(new LongObjectHashMap()), true, seed, operations, keySpace);
+    }
+
+    static void check(String name, Subject subject, boolean wideKeys, long seed, int operations, int keySpace) {
+        Random random = new Random(seed);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int op = 0; op < operations; op++) {
+            long key = (long) random.nextInt(keySpace);
+            if (wideKeys) {
+                key *= KEY_SPREAD;
+            }
+            int action = random.nextInt(100);
+            if (action < 45) {
+                long value = wideKeys ? random.nextLong() & Long.MAX_VALUE : (long) (random.nextInt() & Integer.MAX_VALUE);
+                subject.put(key, value);
+                expected.put(Long.valueOf(key), Long.valueOf(value));
+            } else if (action < 65) {
+                subject.delete(key);
+                expected.remove(Long.valueOf(key));
+            } else if (action < 68) {
+                if (subject.size() > 0) {
+                    int index = random.nextInt(subject.size());
+                    expected.remove(Long.valueOf(subject.keyAt(index)));
+                    subject.removeAt(index);
+                }
+            } else if (action == 99 && random.nextInt(64) == 0) {
+                subject.clear();
+                expected.clear();
+            } else {
+                Long value2 = (Long) expected.get(Long.valueOf(key));
+                long actual = subject.get(key);
+                if (actual != (value2 == null ? MISSING : value2.longValue())) {
+                    throw new IllegalStateException(name + ": get(" + key + ") returned " + actual + ", expected " + value2 + " after " + op + " operations");
+                }
+            }
+            if (op % VERIFY_INTERVAL == 0) {
+                verify(name, subject, expected, op);
+            }
+        }
+        verify(name, subject, expected, operations);
+        verify(name + " clone", subject.copy(), expected, operations);
+    }
+
+    private static void verify(String name, Subject subject, Map<Long, Long> expected, int op) {
+        if (subject.size() != expected.size()) {
+            throw new IllegalStateException(name + ": size " + subject.size() + ", expected " + expected.size() + " after " + op + " operations");
+        }
+        for (int i = 0; i < subject.size(); i++) {
+            long key = subject.keyAt(i);
+            Long value = (Long) expected.get(Long.valueOf(key));
+            if (value == null || value.longValue() != subject.valueAt(i) || subject.indexOfKey(key) != i) {
+                throw new IllegalStateException(name + ": entry " + i + " (" + key + "=" + subject.valueAt(i) + ") disagrees with HashMap after " + op + " operations");
+            }
+        }
+    }
+
+    public static Result[] compareInserts(int[] sizes, int targetInserts, long seed) {
+        if (targetInserts <= 0) {
+            throw new IllegalArgumentException("targetInserts <= 0");
+        }
+        Result[] results = new Result[sizes.length];
+        Object value = new Object();
+        for (int s = 0; s < sizes.length; s++) {
+            int[] keys = randomKeys(sizes[s], seed);
+            int rounds = Math.max(1, targetInserts / keys.length);
+            long primitiveNanos = 0;
+            long sparseNanos = 0;
+            long boxedNanos = 0;
+            for (int r = 0; r < rounds; r++) {
+                long start = System.nanoTime();
+                IntObjectHashMap<Object> primitive = new IntObjectHashMap<>();
+                for (int key : keys) {
+                    primitive.put(key, value);
+                }
+                long primitiveEnd = System.nanoTime();
+                SparseArrayCompat<Object> sparse = new SparseArrayCompat<>();
+                for (int key2 : keys) {
+                    sparse.put(key2, value);
+                }
+                long sparseEnd = System.nanoTime();
+                HashMap<Integer, Object> boxed = new HashMap<>();
+                for (int key3 : keys) {
+                    boxed.put(Integer.valueOf(key3), value);
+                }
+                long boxedEnd = System.nanoTime();
+                if (primitive.size() != keys.length || sparse.size() != keys.length || boxed.size() != keys.length) {
+                    throw new IllegalStateException("Maps disagree on the number of distinct keys");
+                }
+                primitiveNanos += primitiveEnd - start;
+                sparseNanos += sparseEnd - primitiveEnd;
+                boxedNanos += boxedEnd - sparseEnd;
+            }
+            long inserts = ((long) rounds) * ((long) keys.length);
+            results[s] = new Result("insert", keys.length, primitiveNanos / inserts, sparseNanos / inserts, boxedNanos / inserts);
+        }
+        return results;
+    }
+
+    public static Result[] compareLookups(int[] sizes, int lookups, long seed) {
+        if (lookups <= 0) {
+            throw new IllegalArgumentException("lookups <= 0");
+        }
+        Result[] results = new Result[sizes.length];
+        Object value = new Object();
+        for (int s = 0; s < sizes.length; s++) {
+            int[] keys = randomKeys(sizes[s], seed);
+            int size = keys.length;
+            IntObjectHashMap<Object> primitive = new IntObjectHashMap<>(size);
+            SparseArrayCompat<Object> sparse = new SparseArrayCompat<>(size);
+            HashMap<Integer, Object> boxed = new HashMap<>(size * 2);
+            for (int key : keys) {
+                primitive.put(key, value);
+                sparse.put(key, value);
+                boxed.put(Integer.valueOf(key), value);
+            }
+            Random random = new Random(seed);
+            int[] probes = new int[lookups];
+            for (int i = 0; i < lookups; i++) {
+                probes[i] = keys[random.nextInt(size)];
+            }
+            results[s] = new Result("lookup", size, timeLookups(primitive, probes), timeLookups(sparse, probes), timeLookups(boxed, probes));
+        }
+        return results;
+    }
+
+    private static int[] randomKeys(int size, long seed) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid map size " + size);
+        }
+        Random random = new Random(seed);
+        IntIntHashMap seen = new IntIntHashMap(size);
+        int[] keys = new int[size];
+        int n = 0;
+        while (n < size) {
+            int key = random.nextInt();
+            if (!seen.containsKey(key)) {
+                seen.put(key, n);
+                keys[n] = key;
+                n++;
+            }
+        }
+        return keys;
+    }
+
+    private static long timeLookups(IntObjectHashMap<Object> map, int[] probes) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int key : probes) {
+            if (map.get(key) != null) {
+                found++;
+            }
+        }
+        return checkFound(System.nanoTime() - start, found, probes);
+    }
+
+    private static long timeLookups(SparseArrayCompat<Object> map, int[] probes) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int key : probes) {
+            if (map.get(key) != null) {
+                found++;
+            }
+        }
+        return checkFound(System.nanoTime() - start, found, probes);
+    }
+
+    private static long timeLookups(HashMap<Integer, Object> map, int[] probes) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int key : probes) {
+            if (map.get(Integer.valueOf(key)) != null) {
+                found++;
+            }
+        }
+        return checkFound(System.nanoTime() - start, found, probes);
+    }
+
+    private static long checkFound(long elapsedNanos, int found, int[] probes) {
+        if (found == probes.length) {
+            return elapsedNanos / ((long) probes.length);
+        }
+        throw new IllegalStateException("Only " + found + " of " + probes.length + " lookups hit");
+    }
+
+    private static Subject intInt(final IntIntHashMap map) {
+        return new Subject() {
+            public Subject copy() {
+                return PrimitiveMapBenchmark.intInt(map.clone());
+            }
+
+            public void clear() {
+                map.clear();
+            }
+
+            public void delete(long key) {
+                map.delete((int) key);
+            }
+
+            public long get(long key) {
+                return map.containsKey((int) key) ? (long) map.get((int) key) : PrimitiveMapBenchmark.MISSING;
+            }
+
+            public int indexOfKey(long key) {
+                return map.indexOfKey((int) key);
+            }
+
+            public long keyAt(int index) {
+                return (long) map.keyAt(index);
+            }
+
+            public void put(long key, long value) {
+                map.put((int) key, (int) value);
+            }
+
+            public void removeAt(int index) {
+                map.removeAt(index);
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public long valueAt(int index) {
+                return (long) map.valueAt(index);
+            }
+        };
+    }
+
+    private static Subject longLong(final LongLongHashMap map) {
+        return new Subject() {
+            public Subject copy() {
+                return PrimitiveMapBenchmark.longLong(map.clone());
+            }
+
+            public void clear() {
+                map.clear();
+            }
+
+            public void delete(long key) {
+                map.delete(key);
+            }
+
+            public long get(long key) {
+                return map.get(key, PrimitiveMapBenchmark.MISSING);
+            }
+
+            public int indexOfKey(long key) {
+                return map.indexOfKey(key);
+            }
+
+            public long keyAt(int index) {
+                return map.keyAt(index);
+            }
+
+            public void put(long key, long value) {
+                map.put(key, value);
+            }
+
+            public void removeAt(int index) {
+                map.removeAt(index);
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public long valueAt(int index) {
+                return map.valueAt(index);
+            }
+        };
+    }
+
+    private static Subject intObject(final IntObjectHashMap<Long> map) {
+        return new Subject() {
+            public Subject copy() {
+                return PrimitiveMapBenchmark.intObject(map.clone());
+            }
+
+            public void clear() {
+                map.clear();
+            }
+
+            public void delete(long key) {
+                map.delete((int) key);
+            }
+
+            public long get(long key) {
+                Long value = (Long) map.get((int) key);
+                return value == null ? PrimitiveMapBenchmark.MISSING : value.longValue();
+            }
+
+            public int indexOfKey(long key) {
+                return map.indexOfKey((int) key);
+            }
+
+            public long keyAt(int index) {
+                return (long) map.keyAt(index);
+            }
+
+            public void put(long key, long value) {
+                map.put((int) key, Long.valueOf(value));
+            }
+
+            public void removeAt(int index) {
+                map.removeAt(index);
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public long valueAt(int index) {
+                return ((Long) map.valueAt(index)).longValue();
+            }
+        };
+    }
+
+    private static Subject longObject(final LongObjectHashMap<Long> map) {
+        return new Subject() {
+            public Subject copy() {
+                return PrimitiveMapBenchmark.longObject(map.clone());
+            }
+
+            public void clear() {
+                map.clear();
+            }
+
+            public void delete(long key) {
+                map.delete(key);
+            }
+
+            public long get(long key) {
+                Long value = (Long) map.get(key);
+                return value == null ? PrimitiveMapBenchmark.MISSING : value.longValue();
+            }
+
+            public int indexOfKey(long key) {
+                return map.indexOfKey(key);
+            }
+
+            public long keyAt(int index) {
+                return map.keyAt(index);
+            }
+
+            public void put(long key, long value) {
+                map.put(key, Long.valueOf(value));
+            }
+
+            public void removeAt(int index) {
+                map.removeAt(index);
+            }
+
+            public int size() {
+                return map.size();
+            }
+
+            public long valueAt(int index) {
+                return ((Long) map.valueAt(index)).longValue();
+            }
+        };
+    }
+}
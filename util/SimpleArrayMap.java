@@ -5,16 +5,14 @@ import java.util.Map;
 
 public class SimpleArrayMap<K, V> {
     private static final int BASE_SIZE = 4;
-    private static final int CACHE_SIZE = 10;
     private static final boolean CONCURRENT_MODIFICATION_EXCEPTIONS = true;
     private static final boolean DEBUG = false;
     private static final String TAG = "ArrayMap";
-    static Object[] mBaseCache;
-    static int mBaseCacheSize;
-    static Object[] mTwiceBaseCache;
-    static int mTwiceBaseCacheSize;
+    static final int HASHING_DISABLED = Integer.MAX_VALUE;
     Object[] mArray;
+    int mHashThreshold = HASHING_DISABLED;
     int[] mHashes;
+    int[] mIndex;
     int mSize;
 
     private static int binarySearchHashes(int[] hashes, int N, int hash) {
@@ -31,6 +29,9 @@ public class SimpleArrayMap<K, V> {
         if (N == 0) {
             return -1;
         }
+        if (this.mIndex != null) {
+            return indexOfHashed(key, hash);
+        }
         int index = binarySearchHashes(this.mHashes, N, hash);
         if (index < 0 || key.equals(this.mArray[index << 1])) {
             return index;
@@ -58,6 +59,9 @@ public class SimpleArrayMap<K, V> {
         if (N == 0) {
             return -1;
         }
+        if (this.mIndex != null) {
+            return indexOfHashed(null, 0);
+        }
         int index = binarySearchHashes(this.mHashes, N, 0);
         if (index < 0 || this.mArray[index << 1] == null) {
             return index;
@@ -79,66 +83,149 @@ public class SimpleArrayMap<K, V> {
         return end ^ -1;
     }
 
-    private void allocArrays(int size) {
-        if (size == 8) {
-            synchronized (ArrayMap.class) {
-                if (mTwiceBaseCache != null) {
-                    Object[] array = mTwiceBaseCache;
-                    this.mArray = array;
-                    mTwiceBaseCache = (Object[]) array[0];
-                    this.mHashes = (int[]) array[1];
-                    array[1] = null;
-                    array[0] = null;
-                    mTwiceBaseCacheSize--;
-                    return;
-                }
+    private int indexOfHashed(Object key, int hash) {
+        int[] index = this.mIndex;
+        int mask = index.length - 1;
+        int slot = ContainerHelpers.hashInt(hash) & mask;
+        while (true) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return this.mSize ^ -1;
             }
-        } else if (size == 4) {
-            synchronized (ArrayMap.class) {
-                if (mBaseCache != null) {
-                    Object[] array2 = mBaseCache;
-                    this.mArray = array2;
-                    mBaseCache = (Object[]) array2[0];
-                    this.mHashes = (int[]) array2[1];
-                    array2[1] = null;
-                    array2[0] = null;
-                    mBaseCacheSize--;
-                    return;
+            int i = entry - 1;
+            if (i >= this.mSize) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.mHashes[i] == hash) {
+                Object candidate = this.mArray[i << 1];
+                if (key == null) {
+                    if (candidate == null) {
+                        return i;
+                    }
+                } else if (key.equals(candidate)) {
+                    return i;
                 }
             }
+            slot = (slot + 1) & mask;
         }
-        this.mHashes = new int[size];
-        this.mArray = new Object[(size << 1)];
     }
 
-    private static void freeArrays(int[] hashes, Object[] array, int size) {
-        if (hashes.length == 8) {
-            synchronized (ArrayMap.class) {
-                if (mTwiceBaseCacheSize < 10) {
-                    array[0] = mTwiceBaseCache;
-                    array[1] = hashes;
-                    for (int i = (size << 1) - 1; i >= 2; i--) {
-                        array[i] = null;
-                    }
-                    mTwiceBaseCache = array;
-                    mTwiceBaseCacheSize++;
-                }
+    private void buildIndex() {
+        int size = Integer.highestOneBit(Math.max(this.mSize, 4) * 2) << 1;
+        int[] index = new int[size];
+        int mask = size - 1;
+        int[] hashes = this.mHashes;
+        for (int i = 0; i < this.mSize; i++) {
+            int slot = ContainerHelpers.hashInt(hashes[i]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
             }
-        } else if (hashes.length == 4) {
-            synchronized (ArrayMap.class) {
-                if (mBaseCacheSize < 10) {
-                    array[0] = mBaseCache;
-                    array[1] = hashes;
-                    for (int i2 = (size << 1) - 1; i2 >= 2; i2--) {
-                        array[i2] = null;
-                    }
-                    mBaseCache = array;
-                    mBaseCacheSize++;
-                }
+            index[slot] = i + 1;
+        }
+        this.mIndex = index;
+    }
+
+    private void addToIndex(int entry) {
+        int[] index = this.mIndex;
+        if (this.mSize * 2 > index.length) {
+            buildIndex();
+            return;
+        }
+        int mask = index.length - 1;
+        int slot = ContainerHelpers.hashInt(this.mHashes[entry]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry + 1;
+    }
+
+    private int slotOfEntry(int entry) {
+        int[] index = this.mIndex;
+        int mask = index.length - 1;
+        int slot = ContainerHelpers.hashInt(this.mHashes[entry]) & mask;
+        while (index[slot] != entry + 1) {
+            if (index[slot] == 0) {
+                throw new ConcurrentModificationException();
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void removeFromIndex(int entry) {
+        int[] index = this.mIndex;
+        int mask = index.length - 1;
+        int hole = slotOfEntry(entry);
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            int e = index[next];
+            if (e == 0) {
+                index[hole] = 0;
+                return;
+            }
+            int home = ContainerHelpers.hashInt(this.mHashes[e - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = e;
+                hole = next;
             }
         }
     }
 
+    private V removeAtHashed(int index) {
+        Object old = this.mArray[(index << 1) + 1];
+        int osize = this.mSize;
+        int last = osize - 1;
+        removeFromIndex(index);
+        if (index != last) {
+            this.mIndex[slotOfEntry(last)] = index + 1;
+            this.mHashes[index] = this.mHashes[last];
+            this.mArray[index << 1] = this.mArray[last << 1];
+            this.mArray[(index << 1) + 1] = this.mArray[(last << 1) + 1];
+        }
+        this.mArray[last << 1] = null;
+        this.mArray[(last << 1) + 1] = null;
+        if (osize != this.mSize) {
+            throw new ConcurrentModificationException();
+        }
+        this.mSize = last;
+        if (last == 0) {
+            clear();
+        }
+        return old;
+    }
+
+    public void setHashThreshold(int threshold) {
+        if (threshold < 8) {
+            throw new IllegalArgumentException("Hash threshold must be >= 8, was " + threshold);
+        }
+        this.mHashThreshold = threshold;
+        if (this.mIndex == null && this.mSize > threshold) {
+            buildIndex();
+        }
+    }
+
+    public boolean isHashed() {
+        return this.mIndex != null;
+    }
+
+    private void allocArrays(int size) {
+        Object[] array = ArrayRecycler.MAP.acquire(size);
+        if (array != null) {
+            this.mArray = array;
+            this.mHashes = (int[]) array[1];
+            array[1] = null;
+            array[0] = null;
+            return;
+        }
+        this.mHashes = new int[size];
+        this.mArray = new Object[(size << 1)];
+    }
+
+    private static void freeArrays(int[] hashes, Object[] array, int size) {
+        ArrayRecycler.MAP.release(hashes, array, size);
+    }
+
     public SimpleArrayMap() {
         this.mHashes = ContainerHelpers.EMPTY_INTS;
         this.mArray = ContainerHelpers.EMPTY_OBJECTS;
@@ -169,6 +256,7 @@ public class SimpleArrayMap<K, V> {
             int osize = this.mSize;
             this.mHashes = ContainerHelpers.EMPTY_INTS;
             this.mArray = ContainerHelpers.EMPTY_OBJECTS;
+            this.mIndex = null;
             this.mSize = 0;
             freeArrays(ohashes, oarray, osize);
         }
@@ -310,13 +398,18 @@ public class SimpleArrayMap<K, V> {
         this.mArray[index3 << 1] = key;
         this.mArray[(index3 << 1) + 1] = value;
         this.mSize++;
+        if (this.mIndex != null) {
+            addToIndex(index3);
+        } else if (this.mSize > this.mHashThreshold) {
+            buildIndex();
+        }
         return null;
     }
 
     public void putAll(SimpleArrayMap<? extends K, ? extends V> array) {
         int N = array.mSize;
         ensureCapacity(this.mSize + N);
-        if (this.mSize != 0) {
+        if (this.mSize != 0 || array.mIndex != null) {
             for (int i = 0; i < N; i++) {
                 put(array.keyAt(i), array.valueAt(i));
             }
@@ -324,6 +417,9 @@ public class SimpleArrayMap<K, V> {
             System.arraycopy(array.mHashes, 0, this.mHashes, 0, N);
             System.arraycopy(array.mArray, 0, this.mArray, 0, N << 1);
             this.mSize = N;
+            if (N > this.mHashThreshold) {
+                buildIndex();
+            }
         }
     }
 
@@ -336,6 +432,9 @@ public class SimpleArrayMap<K, V> {
     }
 
     public V removeAt(int index) {
+        if (this.mIndex != null) {
+            return removeAtHashed(index);
+        }
         int nsize;
         int n = 8;
         Object old = this.mArray[(index << 1) + 1];